@@ -0,0 +1,104 @@
+package voicebot.management.call.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 연속 실패 횟수 기반의 단순 서킷 브레이커.
+ * CLOSED → (연속 실패 threshold 회) → OPEN → (openDuration 경과) → HALF_OPEN → 시험 호출 1건 결과에 따라 CLOSED/OPEN.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** 호출 자격. TRIAL 은 HALF_OPEN 상태의 시험 호출 */
+    public enum Permission { DENIED, GRANTED, TRIAL }
+
+    /** 서킷이 호출을 거절했음. 요청을 보내지 않았으므로 호출 실패로 세지 않습니다. */
+    public static class CallNotPermittedException extends IllegalStateException {
+        public CallNotPermittedException(String name) {
+            super("Circuit [" + name + "] is not permitting calls");
+        }
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /** 호출을 보내도 되는지 확인하고, HALF_OPEN 이면 시험 호출 자격을 가져갑니다. */
+    public synchronized Permission tryAcquirePermission() {
+        switch (currentState()) {
+            case CLOSED:
+                return Permission.GRANTED;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    return Permission.DENIED;
+                }
+                trialInFlight = true;
+                return Permission.TRIAL;
+            default:
+                return Permission.DENIED;
+        }
+    }
+
+    /**
+     * 시험 호출이 성공/실패 없이 취소되었을 때 자격을 돌려줍니다.
+     * 상태는 HALF_OPEN 그대로 두어 다음 호출이 다시 시험 호출이 됩니다.
+     */
+    public synchronized void onTrialCancelled() {
+        if (state == State.HALF_OPEN && trialInFlight) {
+            trialInFlight = false;
+            log.info("Circuit [{}] trial call cancelled, permission released", name);
+        }
+    }
+
+    /** 자격을 소비하지 않고 호출 가능 여부만 확인합니다. */
+    public synchronized boolean isCallPermitted() {
+        State s = currentState();
+        return s == State.CLOSED || (s == State.HALF_OPEN && !trialInFlight);
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Circuit [{}] {} -> CLOSED", name, state);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onError() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("Circuit [{}] {} -> OPEN after {} consecutive failures", name, state, consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return currentState();
+    }
+
+    private State currentState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMillis) {
+            state = State.HALF_OPEN;
+            log.info("Circuit [{}] OPEN -> HALF_OPEN", name);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,128 @@
+package voicebot.management.call.client;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Calling Orchestrator(FastAPI) 호출 전용 클라이언트.
+ * 연결 풀 크기, 연결/응답 타임아웃, 요청 단위 deadline, 지터 백오프 재시도, 서킷 브레이커를 한곳에서 관리합니다.
+ */
+@Slf4j
+@Component
+public class OrchestratorClient {
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final Duration requestDeadline;
+
+    public OrchestratorClient(
+            WebClient.Builder webClientBuilder,
+            @Value("${orchestrator.api.base-url}") String baseUrl,
+            @Value("${orchestrator.client.max-connections:50}") int maxConnections,
+            @Value("${orchestrator.client.pending-acquire-max:200}") int pendingAcquireMax,
+            @Value("${orchestrator.client.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${orchestrator.client.response-timeout-ms:5000}") long responseTimeoutMs,
+            @Value("${orchestrator.client.request-deadline-ms:15000}") long requestDeadlineMs,
+            @Value("${orchestrator.client.max-retries:2}") int maxRetries,
+            @Value("${orchestrator.client.retry-backoff-ms:200}") long retryBackoffMs,
+            @Value("${orchestrator.client.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${orchestrator.client.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+
+        ConnectionProvider provider = ConnectionProvider.builder("orchestrator")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(requestDeadlineMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.circuitBreaker = new CircuitBreaker("orchestrator", failureThreshold, openDurationMs);
+        this.maxRetries = maxRetries;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+        this.requestDeadline = Duration.ofMillis(requestDeadlineMs);
+
+        log.info("OrchestratorClient initialized. baseUrl={}, maxConnections={}, responseTimeoutMs={}, maxRetries={}",
+                baseUrl, maxConnections, responseTimeoutMs, maxRetries);
+    }
+
+    /**
+     * 상담 시작 정보를 /api/receive 로 전송합니다.
+     * 같은 (vulnerable_id, s_index) 를 다시 보내도 오케스트레이터 세션이 덮어써질 뿐이므로 재시도해도 안전합니다.
+     */
+    public Mono<String> receive(byte[] body) {
+        return Mono.defer(() -> {
+            CircuitBreaker.Permission permission = circuitBreaker.tryAcquirePermission();
+            if (permission == CircuitBreaker.Permission.DENIED) {
+                return Mono.error(new CircuitBreaker.CallNotPermittedException("orchestrator"));
+            }
+            return webClient.post()
+                    .uri("/api/receive")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(body)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                            .jitter(0.5)
+                            .filter(this::isRetryable)
+                            .doBeforeRetry(signal -> log.warn("Retrying orchestrator request (attempt {}): {}",
+                                    signal.totalRetries() + 1, signal.failure().getMessage()))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .timeout(requestDeadline)
+                    .doOnSuccess(response -> circuitBreaker.onSuccess())
+                    .doOnError(error -> circuitBreaker.onError())
+                    // 구독 취소(디스패처 중지 등)로 결과 없이 끝난 시험 호출은 자격만 반납
+                    .doOnCancel(() -> {
+                        if (permission == CircuitBreaker.Permission.TRIAL) {
+                            circuitBreaker.onTrialCancelled();
+                        }
+                    });
+        });
+    }
+
+    /** 서킷이 열려 있지 않아 새 상담을 보내도 되는지 여부 */
+    public boolean isAvailable() {
+        return circuitBreaker.isCallPermitted();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private boolean isRetryable(Throwable error) {
+        // 응답을 받기 전 I/O 실패(연결 실패, HttpClient responseTimeout 포함), 게이트웨이/과부하 응답만 재시도
+        // requestDeadline 의 TimeoutException 은 재시도 바깥에서 발생하므로 여기로 오지 않음
+        if (error instanceof WebClientRequestException) {
+            return true;
+        }
+        if (error instanceof WebClientResponseException e) {
+            HttpStatus status = HttpStatus.resolve(e.getStatusCode().value());
+            return status == HttpStatus.BAD_GATEWAY
+                    || status == HttpStatus.SERVICE_UNAVAILABLE
+                    || status == HttpStatus.GATEWAY_TIMEOUT;
+        }
+        return false;
+    }
+}
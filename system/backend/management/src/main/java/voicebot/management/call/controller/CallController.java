@@ -7,13 +7,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import voicebot.management.call.dto.ConsultationStatusDto;
+import voicebot.management.call.dto.DispatcherStatusDto;
 import voicebot.management.call.dto.LlmResultDto;
 import voicebot.management.call.dto.QueueBatchRequest;
+import voicebot.management.call.dto.QueueBatchResultDto;
+import voicebot.management.call.dto.QueueItemStateDto;
+import voicebot.management.call.dto.QueueStatsDto;
+import voicebot.management.call.dto.QueueStatusPageDto;
+import voicebot.management.call.dto.SseFilterDto;
 import voicebot.management.call.dto.VulnerableResponse;
 import voicebot.management.call.service.CallService;
+import voicebot.management.call.service.ConsultationDispatcher;
 import voicebot.management.call.service.MonitoringService;
 
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -23,6 +31,7 @@ public class CallController {
 
     private final CallService callService;
     private final MonitoringService monitoringService;
+    private final ConsultationDispatcher consultationDispatcher;
 
     @GetMapping("/vulnerable/search")
     public ResponseEntity<List<VulnerableResponse>> searchVulnerables(@RequestParam String name) {
@@ -31,32 +40,79 @@ public class CallController {
     }
 
     @PostMapping("/queue/batch")
-    public ResponseEntity<Void> addBatchToQueue(@RequestBody QueueBatchRequest request) {
-        callService.addBatchToQueue(request.getVulnerableIds(), request.getQuestionSetId());
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+    public ResponseEntity<QueueBatchResultDto> addBatchToQueue(@RequestBody QueueBatchRequest request) {
+        QueueBatchResultDto result = callService.addBatchToQueue(request.getVulnerableIds(), request.getQuestionSetId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 
     @GetMapping("/queue/status")
-    public ResponseEntity<List<ConsultationStatusDto>> getQueueStatus() {
-        List<ConsultationStatusDto> queueStatus = callService.getQueueStatus();
+    public ResponseEntity<QueueStatusPageDto> getQueueStatus(
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        QueueStatusPageDto queueStatus = callService.getQueueStatus(offset, limit);
         return ResponseEntity.ok(queueStatus);
     }
 
+    @GetMapping("/queue/items/{queueId}")
+    public ResponseEntity<QueueItemStateDto> getQueueItemState(@PathVariable String queueId) {
+        QueueItemStateDto state = callService.getQueueItemState(queueId);
+        if (state == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(state);
+    }
+
+    @GetMapping("/queue/stats")
+    public ResponseEntity<QueueStatsDto> getQueueStats(@RequestParam(defaultValue = "60") long windowMinutes) {
+        return ResponseEntity.ok(callService.getQueueStats(windowMinutes));
+    }
+
     @PostMapping("/start")
     public ResponseEntity<Void> startConsultation() {
         callService.startNextConsultation();
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/dispatcher/start")
+    public ResponseEntity<DispatcherStatusDto> startDispatcher() {
+        return ResponseEntity.ok(consultationDispatcher.start());
+    }
+
+    @PostMapping("/dispatcher/pause")
+    public ResponseEntity<DispatcherStatusDto> pauseDispatcher() {
+        return ResponseEntity.ok(consultationDispatcher.pause());
+    }
+
+    @PostMapping("/dispatcher/drain")
+    public ResponseEntity<DispatcherStatusDto> drainDispatcher() {
+        return ResponseEntity.ok(consultationDispatcher.drain());
+    }
+
+    @GetMapping("/dispatcher/status")
+    public ResponseEntity<DispatcherStatusDto> getDispatcherStatus() {
+        return ResponseEntity.ok(consultationDispatcher.getStatus());
+    }
+
     @GetMapping("/sse/{adminId}")
-    public SseEmitter subscribe(@PathVariable String adminId) {
-        return monitoringService.subscribe(adminId);
+    public SseEmitter subscribe(@PathVariable String adminId,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                @RequestParam(defaultValue = "false") boolean mine,
+                                @RequestParam(required = false) Set<String> questionSetIds,
+                                @RequestParam(required = false) Set<String> states) {
+        SseFilterDto filter = SseFilterDto.builder()
+                .mine(mine)
+                .questionSetIds(questionSetIds)
+                .states(states)
+                .build();
+        return monitoringService.subscribe(adminId, lastEventId, filter);
     }
 
     @PostMapping("/send_llm_result")
     public ResponseEntity<Void> receiveLlmResult(@RequestBody LlmResultDto resultDto) {
         log.info("Received LLM result from orchestrator: {}", resultDto);
         callService.handleLlmResult(resultDto);
-        return ResponseEntity.ok().build();
+        // 저장은 write-behind 버퍼에서 비동기로 처리
+        return ResponseEntity.accepted().build();
     }
 } 
\ No newline at end of file
@@ -15,4 +15,6 @@ public class ConsultationStatusDto {
     private String questionSetTitle;
     private String status; // e.g., "WAITING", "IN_PROGRESS", "COMPLETED", "FAILED"
     private String errorMessage;
+    private String questionSetId; // SSE 구독 필터용
+    private String accountId;     // 상담을 시작한 관리자 계정 (SSE 구독 필터용)
 } 
\ No newline at end of file
@@ -0,0 +1,23 @@
+package voicebot.management.call.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatcherStatusDto {
+    private String state; // STOPPED, RUNNING, PAUSED, DRAINING
+    private int maxConcurrency;
+    private int concurrencyLimit; // 현재 adaptive 한도
+    private int inFlight;
+    private long waiting;
+    private long dispatched;
+    private long failed;
+    private String orchestratorCircuit; // CLOSED, OPEN, HALF_OPEN
+    private String workerId;      // 이 서버의 worker id
+    private long activeWorkers;   // heartbeat 중인 관리 서버 수
+}
@@ -0,0 +1,32 @@
+package voicebot.management.call.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 대기열 일괄 등록 결과. 대상자별로 등록/거부 여부를 알려줍니다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueBatchResultDto {
+    private int acceptedCount;
+    private int rejectedCount;
+    private List<Entry> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String vulnerableId;
+        private String queueId; // 거부된 경우 null
+        private boolean accepted;
+        private String reason;  // NOT_FOUND, DUPLICATE, INVALID_ID
+    }
+}
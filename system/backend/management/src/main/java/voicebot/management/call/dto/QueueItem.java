@@ -20,4 +20,9 @@ public class QueueItem implements Serializable {
     private LocalDateTime createdTime;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
+    private String accountId; // 대기열에 등록한 관리자 계정
+    private int attempts;     // 전송 실패/lease 만료로 다시 시도한 횟수
+    private String owner;       // 항목을 꺼낸 worker (in-flight 동안만)
+    private Long fencingToken;  // claim 마다 증가하는 토큰, 오래된 소유자의 갱신을 막음
+    private Integer sessionIndex; // 오케스트레이터에 전달된 회차 (세션 연결 후)
 } 
\ No newline at end of file
@@ -0,0 +1,24 @@
+package voicebot.management.call.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueItemStateDto {
+    private String queueId;
+    private String vulnerableId;
+    private String questionSetId;
+    private String accountId;
+    private String state; // WAITING, IN_PROGRESS, COMPLETED, FAILED
+    private int attempts;
+    private Integer sessionIndex;
+    private String createdTime;
+    private String startTime;
+    private String endTime;
+    private String lastError;
+}
@@ -0,0 +1,18 @@
+package voicebot.management.call.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueStatsDto {
+    private Map<String, Long> current;  // 상태별 현재 건수
+    private long windowMinutes;
+    private Map<String, Long> inWindow; // 최근 windowMinutes 동안 해당 상태로 전이된 건수
+}
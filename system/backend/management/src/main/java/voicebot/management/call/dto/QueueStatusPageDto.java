@@ -0,0 +1,19 @@
+package voicebot.management.call.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueStatusPageDto {
+    private long total;   // 대기열 전체 길이
+    private long offset;
+    private int limit;
+    private List<ConsultationStatusDto> items;
+}
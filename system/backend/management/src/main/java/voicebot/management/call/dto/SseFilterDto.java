@@ -0,0 +1,31 @@
+package voicebot.management.call.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * 모니터링 SSE 구독 필터. 비어 있는 조건은 전체 허용입니다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SseFilterDto {
+    private boolean mine;               // 내가 시작한 상담만
+    private Set<String> questionSetIds; // 이 질문 세트들만
+    private Set<String> states;         // 이 상태들만 (IN_PROGRESS, COMPLETED, FAILED ...)
+
+    public boolean matches(String adminId, ConsultationStatusDto dto) {
+        if (mine && (dto.getAccountId() == null || !dto.getAccountId().equals(adminId))) {
+            return false;
+        }
+        if (questionSetIds != null && !questionSetIds.isEmpty() && !questionSetIds.contains(dto.getQuestionSetId())) {
+            return false;
+        }
+        return states == null || states.isEmpty() || states.contains(dto.getStatus());
+    }
+}
@@ -0,0 +1,77 @@
+package voicebot.management.call.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 오케스트레이터 응답 시간과 실패를 보고 동시 전송 한도를 조정하는 AIMD 리미터.
+ * <ul>
+ *     <li>목표 지연 이내로 성공하고 한도 가까이 쓰고 있으면 한도를 1/limit 씩 늘림 (RTT 당 약 +1)</li>
+ *     <li>목표 지연을 넘기거나 실패하면 한도에 backoffRatio 를 곱해 줄임</li>
+ * </ul>
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyMillis;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long targetLatencyMillis, double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.backoffRatio = backoffRatio;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /** 정상 응답. 지연 시간에 따라 한도를 늘리거나 줄입니다. */
+    public synchronized void onSuccess(long latencyMillis) {
+        if (latencyMillis > targetLatencyMillis) {
+            decrease("latency " + latencyMillis + "ms");
+        } else if (inFlight * 2 >= (int) limit) {
+            // 한도의 절반도 안 쓰고 있으면 늘리지 않음 (한도가 근거 없이 커지는 것 방지)
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        inFlight--;
+    }
+
+    /** 실패/타임아웃. 한도를 줄입니다. */
+    public synchronized void onDropped() {
+        decrease("error");
+        inFlight--;
+    }
+
+    /** 오케스트레이터 상태와 무관한 반납 (대기열이 비었거나 속도 제한 등) */
+    public synchronized void onIgnore() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void decrease(String reason) {
+        int before = (int) limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        if ((int) limit != before) {
+            log.info("Dispatch concurrency limit {} -> {} ({})", before, (int) limit, reason);
+        }
+    }
+}
@@ -2,25 +2,50 @@ package voicebot.management.call.service;
 
 import voicebot.management.call.dto.ConsultationStatusDto;
 import voicebot.management.call.dto.LlmResultDto;
+import voicebot.management.call.dto.QueueBatchResultDto;
 import voicebot.management.call.dto.QueueItem;
+import voicebot.management.call.dto.QueueItemStateDto;
+import voicebot.management.call.dto.QueueStatsDto;
+import voicebot.management.call.dto.QueueStatusPageDto;
 import voicebot.management.call.dto.VulnerableResponse;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Set;
 
 public interface CallService {
     /**
      * 지정된 취약계층 목록과 질문 세트 ID를 사용하여 상담 대기열에 작업을 추가합니다.
      * @param vulnerableIds 대상자 ID 목록
      * @param questionSetId 질문 세트 ID
-     * @return 생성된 큐 아이템 ID 목록
+     * @return 대상자별 등록/거부 결과
      */
-    List<String> addBatchToQueue(List<String> vulnerableIds, String questionSetId);
+    QueueBatchResultDto addBatchToQueue(List<String> vulnerableIds, String questionSetId);
 
     /**
      * 대기열에서 다음 상담을 시작합니다.
      */
     void startNextConsultation();
 
+    /**
+     * 대기열 맨 앞의 항목을 꺼냅니다.
+     * @param pausedQuestionSetIds 지금은 꺼내지 않을 질문 세트 (속도 제한 대기 중 등)
+     * @return 꺼낸 큐 아이템, 또는 대기열이 비었는지 / 대기 항목을 지금은 꺼낼 수 없는지
+     */
+    ConsultationQueue.ClaimResult pollNextItem(Set<String> pausedQuestionSetIds);
+
+    /**
+     * 꺼낸 큐 아이템으로 상담을 시작합니다.
+     * @param item 시작할 큐 아이템
+     * @return 오케스트레이터 응답 (본문이 없으면 빈 문자열), 전송하지 않고 종료한 항목이면 값 없이 완료
+     */
+    Mono<String> startConsultation(QueueItem item);
+
+    /**
+     * 대기 중인 항목 수를 반환합니다.
+     */
+    long getWaitingCount();
+
     /**
      * 이름으로 취약계층을 검색합니다.
      * @param name 검색할 이름
@@ -29,11 +54,36 @@ public interface CallService {
     List<VulnerableResponse> searchVulnerablesByName(String name);
 
     /**
-     * 현재 대기열 상태를 반환합니다.
-     * @return 대기열에 있는 모든 항목의 상태 목록
+     * 현재 대기열 상태를 구간 단위로 반환합니다.
+     * @param offset 대기열 시작 위치
+     * @param limit 가져올 최대 항목 수
+     * @return 해당 구간의 항목 상태와 대기열 전체 길이
      */
-    List<ConsultationStatusDto> getQueueStatus();
+    QueueStatusPageDto getQueueStatus(long offset, int limit);
 
+    /**
+     * 대기열 항목 하나의 현재 상태를 반환합니다.
+     * @param queueId 큐 아이템 ID
+     * @return 상태 정보, 없거나 보존 기간이 지났으면 null
+     */
+    QueueItemStateDto getQueueItemState(String queueId);
+
+    /**
+     * 상태별 현재 건수와 최근 구간 동안의 전이 건수를 반환합니다.
+     * @param windowMinutes 집계 구간 (분)
+     */
+    QueueStatsDto getQueueStats(long windowMinutes);
+
+    /**
+     * LLM 상담 결과를 저장 버퍼에 넣습니다. 실제 저장은 ConsultationResultBuffer 가 비동기로 처리합니다.
+     * @throws org.springframework.web.server.ResponseStatusException 버퍼가 가득 찬 경우 503
+     */
     void handleLlmResult(LlmResultDto resultDto);
 
+    /**
+     * 질문 세트가 수정/삭제되었을 때 Redis 질문 세트 캐시와 모든 서버의 question_list 컴파일 결과를 비웁니다.
+     * @param questionSetId 질문 세트 ID
+     */
+    void evictQuestionSet(String questionSetId);
+
 } 
\ No newline at end of file
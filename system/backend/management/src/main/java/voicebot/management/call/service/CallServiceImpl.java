@@ -6,28 +6,34 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
+import voicebot.management.call.client.CircuitBreaker;
+import voicebot.management.call.client.OrchestratorClient;
 import voicebot.management.call.dto.ConsultationStatusDto;
+import voicebot.management.call.dto.QueueBatchResultDto;
 import voicebot.management.call.dto.QueueItem;
+import voicebot.management.call.dto.QueueItemStateDto;
+import voicebot.management.call.dto.QueueStatsDto;
+import voicebot.management.call.dto.QueueStatusPageDto;
 import voicebot.management.call.dto.VulnerableResponse;
-import voicebot.management.history.entity.Consultation;
-import voicebot.management.history.repository.ConsultationRepository;
+import voicebot.management.common.SearchGrams;
 import voicebot.management.question.entity.QuestionSet;
 import voicebot.management.question.repository.QuestionSetRepository;
 import voicebot.management.vulnerable.entity.Vulnerable;
 import voicebot.management.vulnerable.repository.VulnerableRepository;
-import voicebot.management.vulnerable.session.entity.VulnerableSession;
-import voicebot.management.vulnerable.session.repository.VulnerableSessionRepository;
+import voicebot.management.vulnerable.session.service.SessionIndexAllocator;
 import voicebot.management.call.dto.LlmResultDto;
 import com.fasterxml.jackson.core.type.TypeReference;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,24 +43,25 @@ public class CallServiceImpl implements CallService {
 
     private final VulnerableRepository vulnerableRepository;
     private final QuestionSetRepository questionSetRepository;
-    private final ConsultationRepository consultationRepository;
     private final MonitoringService monitoringService;
-    private final VulnerableSessionRepository vulnerableSessionRepository;
-    private final WebClient.Builder webClientBuilder;
+    private final SessionIndexAllocator sessionIndexAllocator;
+    private final OrchestratorClient orchestratorClient;
+    private final OrchestratorPayloadBuilder orchestratorPayloadBuilder;
+    private final DispatchRateLimiter dispatchRateLimiter;
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
+    private final DisplayNameCache displayNameCache;
+    private final ConsultationQueue consultationQueue;
+    private final ConsultationResultBuffer consultationResultBuffer;
 
-    private static final String WAITING_QUEUE_KEY = "queue:waiting";
     private static final String QUESTION_CACHE_PREFIX = "questions:";
     private static final long QUESTION_CACHE_TTL = 1; // hour
+    private static final int MAX_QUEUE_STATUS_LIMIT = 500;
 
     private static final String ACCOUNT_MAPPING_PREFIX = "consult:account:";
 
-    @Value("${orchestrator.api.base-url}")
-    private String orchestratorBaseUrl;
-
     @Override
-    public List<String> addBatchToQueue(List<String> vulnerableIds, String questionSetId) {
+    public QueueBatchResultDto addBatchToQueue(List<String> vulnerableIds, String questionSetId) {
         QuestionSet questionSet = questionSetRepository.findById(questionSetId)
                 .orElseThrow(() -> new IllegalArgumentException("QuestionSet not found with id: " + questionSetId));
 
@@ -62,32 +69,79 @@ public class CallServiceImpl implements CallService {
         String questionCacheKey = QUESTION_CACHE_PREFIX + questionSetId;
         redisTemplate.opsForValue().set(questionCacheKey, questionSet, QUESTION_CACHE_TTL, TimeUnit.HOURS);
         log.info("Cached QuestionSet {} in Redis.", questionSetId);
+        // 새로 적재한 질문 세트로 question_list 를 다시 컴파일하도록 이전 결과 제거
+        orchestratorPayloadBuilder.evict(questionSetId);
+
+        // 디스패처가 백그라운드에서 꺼내 가므로 등록한 관리자를 큐 아이템에 함께 기록
+        String accountId = currentAccountId();
+
+        List<String> requestedIds = vulnerableIds != null ? vulnerableIds : Collections.emptyList();
+
+        // 존재 여부는 $in 쿼리 한 번으로 확인
+        Set<String> existingIds = vulnerableRepository.findIdsByUserIdIn(new HashSet<>(requestedIds)).stream()
+                .map(Vulnerable::getUserId)
+                .collect(Collectors.toSet());
+
+        List<QueueBatchResultDto.Entry> results = new ArrayList<>(requestedIds.size());
+        List<QueueItem> items = new ArrayList<>(requestedIds.size());
+        Set<String> seen = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (String vId : requestedIds) {
+            String reason = null;
+            if (vId == null || vId.isBlank()) {
+                reason = "INVALID_ID";
+            } else if (!seen.add(vId)) {
+                reason = "DUPLICATE";
+            } else if (!existingIds.contains(vId)) {
+                reason = "NOT_FOUND";
+            }
 
-        return vulnerableIds.stream()
-                .map(vId -> {
-                    vulnerableRepository.findById(vId)
-                            .orElseThrow(() -> new IllegalArgumentException("Vulnerable not found with id: " + vId));
-
-                    QueueItem item = new QueueItem(
-                            UUID.randomUUID().toString(),
-                            vId,
-                            questionSetId,
-                            "WAITING",
-                            LocalDateTime.now(),
-                            null,
-                            null
-                    );
-
-                    redisTemplate.opsForList().rightPush(WAITING_QUEUE_KEY, item);
-                    log.info("Added to waiting queue: {}", item.getQueueId());
-                    return item.getQueueId();
-                })
-                .collect(Collectors.toList());
+            if (reason != null) {
+                results.add(QueueBatchResultDto.Entry.builder()
+                        .vulnerableId(vId)
+                        .accepted(false)
+                        .reason(reason)
+                        .build());
+                continue;
+            }
+
+            QueueItem item = QueueItem.builder()
+                    .queueId(UUID.randomUUID().toString())
+                    .vulnerableId(vId)
+                    .questionSetId(questionSetId)
+                    .state("WAITING")
+                    .createdTime(now)
+                    .accountId(accountId)
+                    .build();
+            items.add(item);
+            results.add(QueueBatchResultDto.Entry.builder()
+                    .vulnerableId(vId)
+                    .queueId(item.getQueueId())
+                    .accepted(true)
+                    .build());
+        }
+
+        consultationQueue.enqueueAll(items);
+
+        int accepted = items.size();
+        log.info("Added {} items to waiting queue ({} rejected) for QuestionSet {}",
+                accepted, results.size() - accepted, questionSetId);
+
+        return QueueBatchResultDto.builder()
+                .acceptedCount(accepted)
+                .rejectedCount(results.size() - accepted)
+                .results(results)
+                .build();
     }
 
     @Override
     public List<VulnerableResponse> searchVulnerablesByName(String name) {
-        return vulnerableRepository.findByNameContaining(name).stream()
+        List<String> grams = SearchGrams.forQuery(name);
+        if (grams.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return vulnerableRepository.searchByNameGrams(grams, Pattern.quote(name.trim())).stream()
                 .map(v -> VulnerableResponse.builder()
                         .userId(v.getUserId())
                         .name(v.getName())
@@ -102,86 +156,120 @@ public class CallServiceImpl implements CallService {
     }
 
     @Override
-    public List<ConsultationStatusDto> getQueueStatus() {
-        List<Object> items = redisTemplate.opsForList().range(WAITING_QUEUE_KEY, 0, -1);
-        if (items == null) {
-            return Collections.emptyList();
+    public QueueStatusPageDto getQueueStatus(long offset, int limit) {
+        long start = Math.max(offset, 0);
+        int size = Math.min(Math.max(limit, 1), MAX_QUEUE_STATUS_LIMIT);
+
+        long total = getWaitingCount();
+        List<QueueItem> items = consultationQueue.range(start, start + size - 1);
+        if (items.isEmpty()) {
+            return QueueStatusPageDto.builder()
+                    .total(total)
+                    .offset(start)
+                    .limit(size)
+                    .items(Collections.emptyList())
+                    .build();
         }
 
-        return items.stream()
-                .map(obj -> {
-                    // QueueItem 역직렬화 처리
-                    QueueItem item;
-                    if (obj instanceof QueueItem) {
-                        item = (QueueItem) obj;
-                    } else {
-                        item = objectMapper.convertValue(obj, QueueItem.class);
-                    }
-
-                    Vulnerable vulnerable = vulnerableRepository.findById(item.getVulnerableId()).orElse(null);
-
-                    // QuestionSet 캐시에서 가져오기 (역직렬화 포함)
-                    Object rawQuestion = redisTemplate.opsForValue()
-                            .get(QUESTION_CACHE_PREFIX + item.getQuestionSetId());
-                    QuestionSet questionSet = null;
-                    if (rawQuestion instanceof QuestionSet) {
-                        questionSet = (QuestionSet) rawQuestion;
-                    } else if (rawQuestion != null) {
-                        questionSet = objectMapper.convertValue(rawQuestion, QuestionSet.class);
-                    }
-                    if (questionSet == null) {
-                        questionSet = questionSetRepository.findById(item.getQuestionSetId()).orElse(null);
-                    }
-
-                    if (vulnerable == null || questionSet == null) {
+        // 구간 전체의 이름/제목을 한 번에 조회
+        Map<String, String> names = displayNameCache.getVulnerableNames(
+                items.stream().map(QueueItem::getVulnerableId).collect(Collectors.toSet()));
+        Map<String, String> titles = displayNameCache.getQuestionSetTitles(
+                items.stream().map(QueueItem::getQuestionSetId).collect(Collectors.toSet()));
+
+        List<ConsultationStatusDto> statuses = items.stream()
+                .map(item -> {
+                    String name = names.get(item.getVulnerableId());
+                    String title = titles.get(item.getQuestionSetId());
+                    if (name == null || title == null) {
                         log.warn("Could not find Vulnerable or QuestionSet for queue item: {}", item.getQueueId());
                         return null;
                     }
 
-                    return new ConsultationStatusDto(
-                            item.getVulnerableId(),
-                            vulnerable.getName(),
-                            questionSet.getTitle(),
-                            item.getState(),
-                            null
-                    );
+                    return ConsultationStatusDto.builder()
+                            .vulnerableId(item.getVulnerableId())
+                            .vulnerableName(name)
+                            .questionSetId(item.getQuestionSetId())
+                            .questionSetTitle(title)
+                            .accountId(item.getAccountId())
+                            .status(item.getState())
+                            .build();
                 })
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+
+        return QueueStatusPageDto.builder()
+                .total(total)
+                .offset(start)
+                .limit(size)
+                .items(statuses)
+                .build();
+    }
+
+    @Override
+    public QueueItemStateDto getQueueItemState(String queueId) {
+        return consultationQueue.getItemState(queueId);
+    }
+
+    @Override
+    public QueueStatsDto getQueueStats(long windowMinutes) {
+        long since = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(windowMinutes);
+        return QueueStatsDto.builder()
+                .current(consultationQueue.countByState())
+                .windowMinutes(windowMinutes)
+                .inWindow(consultationQueue.countByStateSince(since))
+                .build();
     }
 
     @Override
     public void startNextConsultation() {
-        // 큐에서 다음 아이템 꺼내면서 역직렬화 처리
-        Object raw = redisTemplate.opsForList().leftPop(WAITING_QUEUE_KEY);
-        if (raw == null) {
+        // 서킷이 열려 있으면 꺼내지 않음 (꺼낸 뒤 거절되면 발신 잠금/세션 인덱스만 소모됨)
+        if (!orchestratorClient.isAvailable()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "오케스트레이터 연결이 차단된 상태입니다. 잠시 후 다시 시도하세요.");
+        }
+        ConsultationQueue.ClaimResult claim = pollNextItem(Set.of());
+        if (claim.blocked()) {
+            log.info("Waiting items are blocked by dial locks or another question set in progress. Nothing to start.");
+            return;
+        }
+        QueueItem item = claim.item();
+        if (item == null) {
             log.info("Consultation queue is empty. Nothing to start.");
             return;
         }
 
-        QueueItem item;
-        if (raw instanceof QueueItem) {
-            item = (QueueItem) raw;
-        } else {
-            item = objectMapper.convertValue(raw, QueueItem.class);
+        long waitMillis = dispatchRateLimiter.tryAcquire(item.getQuestionSetId());
+        if (waitMillis > 0) {
+            consultationQueue.requeueFront(item);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "발신 한도를 초과했습니다. " + ((waitMillis + 999) / 1000) + "초 후 다시 시도하세요.");
         }
+        startConsultation(item).subscribe();
+    }
+
+    @Override
+    public ConsultationQueue.ClaimResult pollNextItem(Set<String> pausedQuestionSetIds) {
+        // 꺼낸 항목은 LLM 결과가 올 때까지 in-flight lease 로 보관
+        return consultationQueue.claim(pausedQuestionSetIds);
+    }
+
+    @Override
+    public long getWaitingCount() {
+        return consultationQueue.waitingCount();
+    }
 
+    @Override
+    public Mono<String> startConsultation(QueueItem item) {
         final String vulnerableId = item.getVulnerableId();
 
         Vulnerable vulnerable = vulnerableRepository.findById(vulnerableId).orElse(null);
         if (vulnerable == null) {
             log.error("Vulnerable not found for ID: {}. Skipping consultation.", vulnerableId);
-            return;
-        }
-        String accountId = null;
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.isAuthenticated()) {
-                accountId = auth.getName();  // 보통 userId / username
-            }
-        } catch (Exception e) {
-            log.warn("Failed to read accountId from SecurityContext", e);
+            consultationQueue.discard(item, "VULNERABLE_NOT_FOUND");
+            return Mono.empty();
         }
+        String accountId = item.getAccountId() != null ? item.getAccountId() : currentAccountId();
 
         // QuestionSet 캐시에서 가져오기 (역직렬화 포함)
         Object rawQuestion = redisTemplate.opsForValue()
@@ -197,17 +285,14 @@ public class CallServiceImpl implements CallService {
             initialQuestionSet = questionSetRepository.findById(item.getQuestionSetId())
                     .orElseThrow(() -> {
                         log.error("QuestionSet not found in cache or DB for ID: {}. Skipping consultation.", item.getQuestionSetId());
+                        consultationQueue.discard(item, "QUESTION_SET_NOT_FOUND");
                         return new IllegalStateException("QuestionSet not found");
                     });
         }
         final QuestionSet questionSet = initialQuestionSet;
 
-        // 세션 인덱스 관리
-        VulnerableSession session = vulnerableSessionRepository.findById(vulnerableId)
-                .orElse(new VulnerableSession(vulnerableId, 0));
-        int newSessionIndex = session.getSessionIndex() + 1;
-        session.setSessionIndex(newSessionIndex);
-        vulnerableSessionRepository.save(session);
+        // 세션 인덱스 발급 (Redis INCR, MySQL 반영은 비동기)
+        int newSessionIndex = sessionIndexAllocator.next(vulnerableId);
         log.info("Vulnerable [{}], New Session Index: {}", vulnerableId, newSessionIndex);
 
         if (accountId != null) {
@@ -222,26 +307,28 @@ public class CallServiceImpl implements CallService {
         item.setState("IN_PROGRESS");
         item.setStartTime(LocalDateTime.now());
 
-        monitoringService.sendUpdate(new ConsultationStatusDto(
-                item.getVulnerableId(),
-                vulnerable.getName(),
-                questionSet.getTitle(),
-                "IN_PROGRESS",
-                null
-        ));
+        monitoringService.sendUpdate(ConsultationStatusDto.builder()
+                .vulnerableId(item.getVulnerableId())
+                .vulnerableName(vulnerable.getName())
+                .questionSetId(item.getQuestionSetId())
+                .questionSetTitle(questionSet.getTitle())
+                .accountId(accountId)
+                .status("IN_PROGRESS")
+                .build());
 
         log.info("Starting consultation for: {}", item);
-        Map<String, Object> body = createOrchestratorRequest(vulnerable, questionSet, newSessionIndex);
-        log.info("Sending to Orchestrator: {}", body);
-
-        WebClient webClient = webClientBuilder.baseUrl(orchestratorBaseUrl).build();
-        webClient.post()
-                .uri("/api/receive")
-                .bodyValue(createOrchestratorRequest(vulnerable, questionSet, newSessionIndex))
-                .retrieve()
-                .bodyToMono(String.class)  // ← 문자열로 변경
+        byte[] body = orchestratorPayloadBuilder.build(vulnerable, questionSet, newSessionIndex);
+        if (log.isDebugEnabled()) {
+            log.debug("Sending to Orchestrator: {}", new String(body, StandardCharsets.UTF_8));
+        }
+
+        return orchestratorClient.receive(body)
+                .defaultIfEmpty("")  // 본문 없는 2xx 도 응답이 도착한 것으로 취급
                 .doOnSuccess(response -> {
                     log.info("FastAPI response: {}", response);
+                    if (!consultationQueue.bindSession(item, vulnerableId, newSessionIndex)) {
+                        log.warn("Queue item {} was re-claimed by another worker after its lease expired", item.getQueueId());
+                    }
 
 //                    item.setState("COMPLETED");
                     item.setEndTime(LocalDateTime.now());
@@ -257,19 +344,35 @@ public class CallServiceImpl implements CallService {
 //                    );
                 })
                 .doOnError(error -> {
+                    if (error instanceof CircuitBreaker.CallNotPermittedException) {
+                        // 전송하지 않았으므로 시도 횟수를 늘리지 않고 맨 앞으로 되돌림
+                        log.warn("Orchestrator circuit rejected {}; returning queue item {} to the front",
+                                vulnerableId, item.getQueueId());
+                        consultationQueue.requeueFront(item);
+                        monitoringService.sendUpdate(ConsultationStatusDto.builder()
+                                .vulnerableId(item.getVulnerableId())
+                                .vulnerableName(vulnerable.getName())
+                                .questionSetId(item.getQuestionSetId())
+                                .questionSetTitle(questionSet.getTitle())
+                                .accountId(accountId)
+                                .status(ConsultationQueue.STATE_WAITING)
+                                .build());
+                        return;
+                    }
                     log.error("Consultation failed for {}: {}", vulnerableId, error.getMessage());
-                    item.setState("FAILED");
-                    item.setEndTime(LocalDateTime.now());
-
-                    monitoringService.sendUpdate(new ConsultationStatusDto(
-                            item.getVulnerableId(),
-                            vulnerable.getName(),
-                            questionSet.getTitle(),
-                            "FAILED",
-                            error.getMessage()
-                    ));
-                })
-                .subscribe();
+                    boolean requeued = consultationQueue.release(item, error.getMessage());
+                    log.info("Released queue item {} (requeued={})", item.getQueueId(), requeued);
+
+                    monitoringService.sendUpdate(ConsultationStatusDto.builder()
+                            .vulnerableId(item.getVulnerableId())
+                            .vulnerableName(vulnerable.getName())
+                            .questionSetId(item.getQuestionSetId())
+                            .questionSetTitle(questionSet.getTitle())
+                            .accountId(accountId)
+                            .status("FAILED")
+                            .errorMessage(error.getMessage())
+                            .build());
+                });
     }
 
     @Override
@@ -277,223 +380,38 @@ public class CallServiceImpl implements CallService {
         log.info("Handling LLM result for vulnerableId={}, sessionIndex={}, questionSetId={}",
                 dto.getVulnerableId(), dto.getSessionIndex(), dto.getQuestionSetId());
 
-        String resolvedAccountId = null;
-        if (dto.getVulnerableId() != null && dto.getSessionIndex() != null) {
-            String mapKey = ACCOUNT_MAPPING_PREFIX + dto.getVulnerableId() + ":" + dto.getSessionIndex();
-            Object rawAccount = redisTemplate.opsForValue().get(mapKey);
-            if (rawAccount != null) {
-                resolvedAccountId = rawAccount.toString();
-                // 1회용으로 쓰고 지우고 싶으면 주석 해제
-                // redisTemplate.delete(mapKey);
+        // 저장은 ConsultationResultBuffer 가 묶어서 처리
+        // 오케스트레이터 재전송 중복 표시는 버퍼 적재와 같은 스크립트에서 기록되므로 표시만 남는 경우가 없음
+        switch (consultationResultBuffer.offer(dto)) {
+            case DUPLICATE -> log.info("Duplicate LLM result ignored. vulnerableId={}, sessionIndex={}",
+                    dto.getVulnerableId(), dto.getSessionIndex());
+            case FULL -> throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "결과 처리 대기열이 가득 찼습니다. 잠시 후 다시 전송하세요.");
+            default -> {
             }
-            log.info("Resolved accountId from mapping [{}] = {}", mapKey, resolvedAccountId);
-        }
-        // 취약계층 먼저 조회 (나중에 업데이트에도 사용)
-        Vulnerable vulnerable = null;
-        if (dto.getVulnerableId() != null) {
-            vulnerable = vulnerableRepository.findById(dto.getVulnerableId()).orElse(null);
         }
 
-        if (vulnerable == null) {
-            log.warn("Vulnerable not found for id={}", dto.getVulnerableId());
-        }
-
-        try {
-            Consultation consultation = new Consultation();
-
-            consultation.setVulnerableId(dto.getVulnerableId());
-            consultation.setQuestionSetId(dto.getQuestionSetId());
-
-            Integer sessionIndex = dto.getSessionIndex();
-            consultation.setSIndex(sessionIndex != null ? sessionIndex : 0);
-
-            if (dto.getTime() != null) {
-                try {
-                    consultation.setTime(LocalDateTime.parse(dto.getTime()));
-                } catch (Exception e) {
-                    log.warn("Invalid time format from dto: {} , using now()", dto.getTime());
-                    consultation.setTime(LocalDateTime.now());
-                }
-            } else {
-                consultation.setTime(LocalDateTime.now());
-            }
-
-            Long runtime = dto.getRuntime();
-            consultation.setRuntime(runtime != null ? runtime : 0L);
-
-            consultation.setOverallScript(dto.getOverallScript());
-            consultation.setSummary(dto.getSummary());
-
-            Integer result = dto.getResult();
-            consultation.setResult(result != null ? result : 0);
-
-            Integer failCode = dto.getFailCode();
-            consultation.setFailCode(failCode != null ? failCode : 0);
-
-            Integer needHuman = dto.getNeedHuman();
-            consultation.setNeedHuman(needHuman != null ? needHuman : 0);
-
-            consultation.setResultVulnerabilities(dto.getResultVulnerabilities());
-            consultation.setDeleteVulnerabilities(dto.getDeleteVulnerabilities());
-            consultation.setNewVulnerabilities(dto.getNewVulnerabilities());
-
-            String finalAccountId = dto.getAccountId() != null ? dto.getAccountId() : resolvedAccountId;
-            consultation.setAccountId(finalAccountId);
-
-            // 1) 상담 내역 저장
-            consultationRepository.save(consultation);
-            log.info("Saved consultation result. consultationId={}, accountId={}",
-                    consultation.getId(), finalAccountId);
-            monitoringService.sendUpdate(
-                    new ConsultationStatusDto(
-                            dto.getVulnerableId(),
-                            vulnerable != null ? vulnerable.getName() : null,
-                            null,
-                            "COMPLETED",
-                            null
-                    )
-            );
-            if (vulnerable != null && consultation.getResultVulnerabilities() != null) {
-                Consultation.VulnerabilityInfo rv = consultation.getResultVulnerabilities();
-
-                Vulnerable.Vulnerability vulnInfo = vulnerable.getVulnerabilities();
-                if (vulnInfo == null) {
-                    vulnInfo = new Vulnerable.Vulnerability();
-                }
-
-                vulnInfo.setSummary(consultation.getSummary());
-
-                List<Vulnerable.Risk> riskList =
-                        Optional.ofNullable(rv.getRiskList()).orElse(Collections.emptyList())
-                                .stream()
-                                .map(r -> Vulnerable.Risk.builder()
-                                        .riskType(r.getRiskIndexList())
-                                        .content(r.getContent())
-                                        .build()
-                                )
-                                .toList();
-
-                List<Vulnerable.Desire> desireList =
-                        Optional.ofNullable(rv.getDesireList()).orElse(Collections.emptyList())
-                                .stream()
-                                .map(d -> Vulnerable.Desire.builder()
-                                        .desireType(d.getDesireIndexList())
-                                        .content(d.getContent())
-                                        .build()
-                                )
-                                .toList();
-
-                vulnInfo.setRiskList(riskList);
-                vulnInfo.setDesireList(desireList);
-
-                vulnerable.setVulnerabilities(vulnInfo);
-                vulnerableRepository.save(vulnerable);
-
-                log.info("Updated Vulnerable {} vulnerabilities from consultation {}",
-                        vulnerable.getUserId(), consultation.getId());
-            }
-
-        } catch (Exception e) {
-            log.error("Failed to save consultation result from LLM dto: {}", dto, e);
-        }
+        // 결과가 도착했으므로 대기열 lease 완료 처리
+        // 중복 재전송이어도 호출: 첫 전송 직후 ack 가 실패했으면 lease 가 남아 재발신되므로 (ack 는 멱등)
+        consultationQueue.ack(dto.getVulnerableId(), dto.getSessionIndex());
     }
 
-    private Map<String, Object> createOrchestratorRequest(Vulnerable vulnerable,
-                                                          QuestionSet questionSet,
-                                                          int sessionIndex) {
-        Map<String, Object> address = Map.of(
-                "state", vulnerable.getAddress().getState(),
-                "city",  vulnerable.getAddress().getCity(),
-                "address1", vulnerable.getAddress().getAddress1(),
-                "address2", vulnerable.getAddress().getAddress2()
-        );
-
-        List<Map<String, Object>> riskListMap = Collections.emptyList();
-        List<Map<String, Object>> desireListMap = Collections.emptyList();
-
-        if (vulnerable.getVulnerabilities() != null) {
-            Vulnerable.Vulnerability vulnInfo = vulnerable.getVulnerabilities();
-
-            if (vulnInfo.getRiskList() != null) {
-                riskListMap = vulnInfo.getRiskList().stream()
-                        .map(r -> {
-                            Map<String, Object> m = new HashMap<>();
-                            List<Integer> riskType =
-                                    Optional.ofNullable(r.getRiskType())
-                                            .orElse(Collections.emptyList());
-
-                            m.put("risk_index_list", riskType);
-                            m.put("content", r.getContent());
-                            return m;
-                        })
-                        .toList();
-            }
+    @Override
+    public void evictQuestionSet(String questionSetId) {
+        redisTemplate.delete(QUESTION_CACHE_PREFIX + questionSetId);
+        orchestratorPayloadBuilder.evict(questionSetId);
+        log.info("Evicted cached QuestionSet {}.", questionSetId);
+    }
 
-            if (vulnInfo.getDesireList() != null) {
-                desireListMap = vulnInfo.getDesireList().stream()
-                        .map(d -> {
-                            Map<String, Object> m = new HashMap<>();
-                            List<Integer> desireType =
-                                    Optional.ofNullable(d.getDesireType())
-                                            .orElse(Collections.emptyList());
-
-                            m.put("desire_type", desireType);
-                            m.put("content", d.getContent());
-                            return m;
-                        })
-                        .toList();
+    private String currentAccountId() {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated()) {
+                return auth.getName();  // 보통 userId / username
             }
-
+        } catch (Exception e) {
+            log.warn("Failed to read accountId from SecurityContext", e);
         }
-
-        Map<String, Object> vulnerabilities = Map.of(
-                "risk_list", riskListMap,
-                "desire_list", desireListMap
-        );
-
-        List<Map<String, Object>> questionListParsed =
-                questionSet.getFlow().stream()
-                        .map(q -> {
-                            Map<String, Object> qMap = new HashMap<>();
-                            qMap.put("text", q.getText());
-
-                            List<Map<String, Object>> expectedAnswers =
-                                    q.getExpectedResponse().stream()
-                                            .map(exp -> {
-                                                Map<String, Object> expMap = new HashMap<>();
-                                                expMap.put("text", exp.getText());
-
-                                                List<Map<String, Object>> responseTypes =
-                                                        exp.getResponseTypeList().stream()
-                                                                .map(rt -> {
-                                                                    Map<String, Object> rtMap = new HashMap<>();
-                                                                    rtMap.put("response_type", rt.getResponseType());
-                                                                    rtMap.put("response_index", rt.getResponseIndex());
-                                                                    return rtMap;
-                                                                })
-                                                                .toList();
-
-                                                expMap.put("response_type_list", responseTypes);
-                                                return expMap;
-                                            })
-                                            .toList();
-
-                            qMap.put("expected_answer", expectedAnswers);
-                            return qMap;
-                        })
-                        .toList();
-
-        return Map.of(
-                "vulnerable_id", vulnerable.getUserId(), //취약문제 index
-                "s_index", sessionIndex,  // [추가] 회차 정보 전달
-                "q_id", questionSet.getId(),
-                "name", vulnerable.getName(),
-                "phone", vulnerable.getPhoneNumber(),
-                "gender", vulnerable.getGender(),
-                "birth_date", vulnerable.getBirthDate().toString(),
-                "address", address,
-                "question_list", questionListParsed,
-                "vulnerabilities", vulnerabilities
-        );
+        return null;
     }
 }
@@ -0,0 +1,229 @@
+package voicebot.management.call.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import voicebot.management.call.client.CircuitBreaker;
+import voicebot.management.call.client.OrchestratorClient;
+import voicebot.management.call.dto.DispatcherStatusDto;
+import voicebot.management.call.dto.QueueItem;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * queue:waiting 을 백그라운드에서 계속 비워 나가는 상담 디스패처.
+ * 동시에 진행 중인 오케스트레이터 전송 수는 AdaptiveConcurrencyLimiter 가 응답 시간/실패에 맞춰
+ * min-concurrency ~ max-concurrency 사이에서 조정합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConsultationDispatcher {
+
+    public enum State { STOPPED, RUNNING, PAUSED, DRAINING }
+
+    private final CallService callService;
+    private final OrchestratorClient orchestratorClient;
+    private final DispatchRateLimiter rateLimiter;
+    private final ConsultationQueue consultationQueue;
+    private final DispatchWorkerRegistry workerRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${call.dispatcher.max-concurrency:16}")
+    private int maxConcurrency;
+
+    @Value("${call.dispatcher.min-concurrency:1}")
+    private int minConcurrency;
+
+    @Value("${call.dispatcher.initial-concurrency:4}")
+    private int initialConcurrency;
+
+    @Value("${call.dispatcher.target-latency-ms:2000}")
+    private long targetLatencyMs;
+
+    @Value("${call.dispatcher.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${call.dispatcher.auto-start:false}")
+    private boolean autoStart;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.STOPPED);
+    private final AtomicLong dispatchedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    // 질문 세트(토큰 버킷)별 속도 제한 해제 시각
+    private final Map<String, Long> rateLimitedUntil = new ConcurrentHashMap<>();
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private ExecutorService workers;
+
+    @PostConstruct
+    void init() {
+        limiter = new AdaptiveConcurrencyLimiter(
+                initialConcurrency, minConcurrency, maxConcurrency, targetLatencyMs, backoffRatio);
+        Gauge.builder("call.dispatcher.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Allowed in-flight orchestrator dispatches")
+                .register(meterRegistry);
+        Gauge.builder("call.dispatcher.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("In-flight orchestrator dispatches")
+                .register(meterRegistry);
+
+        workers = Executors.newFixedThreadPool(maxConcurrency, r -> {
+            Thread t = new Thread(r);
+            t.setName("consult-dispatch-" + t.getId());
+            t.setDaemon(true);
+            return t;
+        });
+        if (autoStart) {
+            state.set(State.RUNNING);
+        }
+        log.info("Consultation dispatcher initialized. concurrency={} ({}~{}), state={}",
+                initialConcurrency, minConcurrency, maxConcurrency, state.get());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        state.set(State.STOPPED);
+        workers.shutdown();
+    }
+
+    /** 대기열을 계속 소비합니다. */
+    public DispatcherStatusDto start() {
+        State prev = state.getAndSet(State.RUNNING);
+        log.info("Dispatcher {} -> RUNNING", prev);
+        return getStatus();
+    }
+
+    /** 새 항목은 꺼내지 않고, 진행 중인 전송만 마무리합니다. */
+    public DispatcherStatusDto pause() {
+        State prev = state.getAndSet(State.PAUSED);
+        log.info("Dispatcher {} -> PAUSED", prev);
+        return getStatus();
+    }
+
+    /** 현재 대기열이 빌 때까지 소비한 뒤 STOPPED 로 전환합니다. */
+    public DispatcherStatusDto drain() {
+        State prev = state.getAndSet(State.DRAINING);
+        log.info("Dispatcher {} -> DRAINING", prev);
+        return getStatus();
+    }
+
+    public DispatcherStatusDto getStatus() {
+        return DispatcherStatusDto.builder()
+                .state(state.get().name())
+                .maxConcurrency(maxConcurrency)
+                .concurrencyLimit(limiter.getLimit())
+                .inFlight(limiter.getInFlight())
+                .waiting(callService.getWaitingCount())
+                .dispatched(dispatchedCount.get())
+                .failed(failedCount.get())
+                .workerId(workerRegistry.getWorkerId())
+                .activeWorkers(workerRegistry.activeWorkerCount())
+                .orchestratorCircuit(orchestratorClient.getCircuitState().name())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${call.dispatcher.poll-interval-ms:500}")
+    public void tick() {
+        Set<String> paused = pausedQuestionSets();
+        // 오케스트레이터 서킷이 열려 있으면 꺼내지 않고 다음 tick 에 다시 확인
+        while (isActive() && orchestratorClient.isAvailable() && limiter.tryAcquire()) {
+            ConsultationQueue.ClaimResult claim;
+            try {
+                claim = callService.pollNextItem(paused);
+            } catch (Exception e) {
+                limiter.onIgnore();
+                log.error("Failed to poll consultation queue", e);
+                return;
+            }
+
+            QueueItem item = claim.item();
+            if (item == null) {
+                limiter.onIgnore();
+                // 앞쪽 항목을 지금 꺼낼 수 없을 뿐이면 아직 남은 것이므로 DRAINING 을 유지하고 다음 tick 에 재시도
+                if (claim.isEmpty() && limiter.getInFlight() == 0
+                        && state.compareAndSet(State.DRAINING, State.STOPPED)) {
+                    log.info("Dispatcher drained the waiting queue -> STOPPED");
+                }
+                return;
+            }
+
+            // 발신 속도 제한: 토큰이 없으면 맨 앞으로 되돌리고, 토큰이 찰 때까지 그 질문 세트만 건너뜀
+            long waitMillis = rateLimiter.tryAcquire(item.getQuestionSetId());
+            if (waitMillis > 0) {
+                consultationQueue.requeueFront(item);
+                limiter.onIgnore();
+                rateLimitedUntil.put(item.getQuestionSetId(), System.currentTimeMillis() + waitMillis);
+                paused.add(item.getQuestionSetId());
+                continue;
+            }
+
+            workers.execute(() -> dispatch(item));
+        }
+    }
+
+    private void dispatch(QueueItem item) {
+        Mono<String> consultation;
+        try {
+            consultation = callService.startConsultation(item);
+        } catch (Exception e) {
+            // 질문 세트 없음 등 오케스트레이터와 무관한 실패는 한도에 반영하지 않음
+            log.error("Failed to start consultation for queue item {}", item.getQueueId(), e);
+            failedCount.incrementAndGet();
+            limiter.onIgnore();
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        consultation
+                .doOnSuccess(response -> {
+                    if (response == null) {
+                        // 대상자 없음 등으로 전송 없이 종료: 응답 시간이 없으므로 한도에 반영하지 않음
+                        failedCount.incrementAndGet();
+                        limiter.onIgnore();
+                        return;
+                    }
+                    // 오케스트레이터 응답이 실제로 도착한 경우에만 지연 시간을 반영
+                    dispatchedCount.incrementAndGet();
+                    limiter.onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                })
+                .doOnError(e -> {
+                    if (e instanceof CircuitBreaker.CallNotPermittedException) {
+                        // 서킷 거절은 전송 전이라 혼잡 신호가 아님 (항목은 맨 앞으로 되돌려짐)
+                        limiter.onIgnore();
+                        return;
+                    }
+                    failedCount.incrementAndGet();
+                    limiter.onDropped();
+                })
+                .doOnCancel(limiter::onIgnore)
+                .onErrorResume(e -> Mono.empty())
+                .subscribe();
+    }
+
+    /** 속도 제한 대기 중인 질문 세트 (해제 시각이 지난 항목은 정리) */
+    private Set<String> pausedQuestionSets() {
+        long now = System.currentTimeMillis();
+        rateLimitedUntil.values().removeIf(until -> until <= now);
+        return new HashSet<>(rateLimitedUntil.keySet());
+    }
+
+    private boolean isActive() {
+        State s = state.get();
+        return s == State.RUNNING || s == State.DRAINING;
+    }
+}
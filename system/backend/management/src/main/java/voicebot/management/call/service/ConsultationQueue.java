@@ -0,0 +1,626 @@
+package voicebot.management.call.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import voicebot.management.call.dto.QueueItem;
+import voicebot.management.call.dto.QueueItemStateDto;
+import voicebot.management.common.RedisKeyMigration;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 기반 상담 대기열 (at-least-once).
+ * <p>
+ * 꺼낸 항목은 queue:inflight 에 보관되고 queue:leases 에 만료 시각이 기록됩니다.
+ * LLM 결과가 도착하면 ack 로 제거하고, 만료된 lease 는 reaper 가 대기열 맨 앞으로 되돌립니다.
+ * 항목별 상태는 queue:item:{queueId} 해시와 상태별 인덱스 queue:state:{STATE} (전이 시각 점수) 에 기록됩니다.
+ * <p>
+ * 스크립트는 claim 할 항목의 발신 잠금, 이전 상태 인덱스처럼 실행 중에야 알 수 있는 키도 다루므로
+ * 대기열 키는 모두 {queue} 해시 태그로 시작해 Redis Cluster 에서도 한 슬롯에 모입니다.
+ * (위 설명의 키 이름은 태그를 생략한 것)
+ * <p>
+ * 여러 관리 서버가 같은 대기열을 처리할 수 있도록
+ * <ul>
+ *     <li>claim 시 소유 worker 와 fencing token (queue:fence INCR) 을 in-flight 항목에 기록하고,
+ *     lease 갱신/반납은 token 이 일치할 때만 반영합니다.</li>
+ *     <li>대상자별 발신 잠금 (dial:lock:{vulnerableId}) 을 잡아 같은 사람에게 동시에 두 번 전화하지 않습니다.</li>
+ *     <li>heartbeat 가 끊긴 worker 가 전송 전에 쥐고 있던 항목은 lease 만료를 기다리지 않고 회수합니다.</li>
+ *     <li>오케스트레이터는 질문 목록을 세션별이 아닌 하나(cached_question_list)로 보관하므로,
+ *     in-flight 항목의 질문 세트별 건수(queue:inflight:qs)를 함께 관리해 한 번에 한 질문 세트만 꺼냅니다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsultationQueue {
+
+    private static final String KEY_PREFIX = "{queue}:";
+    private static final String WAITING_QUEUE_KEY = KEY_PREFIX + "waiting";
+    private static final String INFLIGHT_KEY = KEY_PREFIX + "inflight";
+    private static final String INFLIGHT_QUESTION_SETS_KEY = KEY_PREFIX + "inflight:qs";
+    private static final String LEASE_KEY = KEY_PREFIX + "leases";
+    private static final String DEAD_QUEUE_KEY = KEY_PREFIX + "dead";
+    private static final String SESSION_KEY_PREFIX = KEY_PREFIX + "session:";
+    private static final String ITEM_KEY_PREFIX = KEY_PREFIX + "item:";
+    private static final String STATE_INDEX_PREFIX = KEY_PREFIX + "state:";
+    private static final String FENCE_KEY = KEY_PREFIX + "fence";
+    private static final String DIAL_LOCK_PREFIX = KEY_PREFIX + "dial:lock:";
+
+    // 해시 태그를 붙이기 전의 키 이름 (기동 시 새 이름으로 옮김)
+    private static final String LEGACY_KEY_PREFIX = "queue:";
+    private static final String LEGACY_DIAL_LOCK_PREFIX = "dial:lock:";
+
+    public static final String STATE_WAITING = "WAITING";
+    public static final String STATE_IN_PROGRESS = "IN_PROGRESS";
+    public static final String STATE_COMPLETED = "COMPLETED";
+    public static final String STATE_FAILED = "FAILED";
+    private static final List<String> STATES =
+            List.of(STATE_WAITING, STATE_IN_PROGRESS, STATE_COMPLETED, STATE_FAILED);
+
+    private static final int REAP_BATCH_SIZE = 100;
+    private static final int CLAIM_SCAN_LIMIT = 20;
+    private static final String BLOCKED = "__BLOCKED__";
+
+    // in-flight 항목을 지우면서 질문 세트별 건수도 줄임 (0 이 되면 필드 삭제)
+    private static final String DECREMENT_QUESTION_SET =
+            "local function decrementQuestionSet(countsKey, raw) " +
+            "  if not raw then return end " +
+            "  local qs = tostring(cjson.decode(raw)['questionSetId']) " +
+            "  if redis.call('HINCRBY', countsKey, qs, -1) <= 0 then redis.call('HDEL', countsKey, qs) end " +
+            "end ";
+
+    // LPOP + 발신 잠금 + fencing token 발급 + lease 등록을 원자적으로 처리
+    // 다음 항목은 건너뛰고, 건너뛴 항목은 원래 순서대로 맨 앞에 되돌림
+    //  - 다른 항목이 발신 중인 대상자의 항목
+    //  - 일시 중지된(ARGV[7..], 속도 제한 대기 중) 질문 세트의 항목
+    //  - ARGV[6] 이 '1' 이고 다른 질문 세트가 진행 중일 때 그 외 질문 세트의 항목
+    // 반환: 꺼낸 항목 JSON / 훑은 항목을 모두 지금은 꺼낼 수 없으면 BLOCKED / 대기열이 비었으면 nil
+    // 발신 잠금 키는 꺼낸 항목을 봐야 정해지므로 ARGV 의 prefix 로 만듦 (prefix 가 같은 해시 태그라 같은 슬롯)
+    // KEYS: waiting, inflight, leases, fence, inflightQuestionSets
+    // ARGV: deadline, owner, lockPrefix, lockTtlMs, scanLimit, singleQuestionSet, pausedQuestionSet...
+    private static final RedisScript<String> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local paused = {} " +
+            "for i = 7, #ARGV do paused[ARGV[i]] = true end " +
+            "local allowed = nil " +
+            "if ARGV[6] == '1' then " +
+            "  local active = redis.call('HKEYS', KEYS[5]) " +
+            "  if #active > 0 then " +
+            "    allowed = {} " +
+            "    for _, qs in ipairs(active) do allowed[qs] = true end " +
+            "  end " +
+            "end " +
+            "local skipped = {} " +
+            "local claimed = false " +
+            "for i = 1, tonumber(ARGV[5]) do " +
+            "  local raw = redis.call('LPOP', KEYS[1]) " +
+            "  if not raw then break end " +
+            "  local item = cjson.decode(raw) " +
+            "  local qs = tostring(item['questionSetId']) " +
+            "  if not paused[qs] and (not allowed or allowed[qs]) then " +
+            "    local lockKey = ARGV[3] .. tostring(item['vulnerableId']) " +
+            "    local holder = redis.call('GET', lockKey) " +
+            "    if not holder or holder == item['queueId'] then " +
+            "      redis.call('SET', lockKey, item['queueId'], 'PX', ARGV[4]) " +
+            "      item['owner'] = ARGV[2] " +
+            "      item['fencingToken'] = redis.call('INCR', KEYS[4]) " +
+            "      claimed = cjson.encode(item) " +
+            "      redis.call('HSET', KEYS[2], item['queueId'], claimed) " +
+            "      redis.call('ZADD', KEYS[3], ARGV[1], item['queueId']) " +
+            "      redis.call('HINCRBY', KEYS[5], qs, 1) " +
+            "      break " +
+            "    end " +
+            "  end " +
+            "  table.insert(skipped, raw) " +
+            "end " +
+            "for i = #skipped, 1, -1 do redis.call('LPUSH', KEYS[1], skipped[i]) end " +
+            "if claimed then return claimed end " +
+            "if #skipped > 0 then return '" + BLOCKED + "' end " +
+            "return false",
+            String.class);
+
+    // lease 가 아직 ARGV[2] 이전에 만료된 상태이고 fencing token(ARGV[4], 빈 값이면 검사 생략)이 일치할 때만 반납
+    // 반납하면 이 항목이 쥐고 있던 발신 잠금(KEYS[5])도 해제
+    // KEYS: inflight, leases, target, inflightQuestionSets, lockKey / ARGV: queueId, expiredBefore, json, token
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            DECREMENT_QUESTION_SET +
+            "local score = redis.call('ZSCORE', KEYS[2], ARGV[1]) " +
+            "if not score or tonumber(score) > tonumber(ARGV[2]) then return 0 end " +
+            "local cur = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if ARGV[4] ~= '' then " +
+            "  if not cur or tostring(cjson.decode(cur)['fencingToken']) ~= ARGV[4] then return 0 end " +
+            "end " +
+            "redis.call('ZREM', KEYS[2], ARGV[1]) " +
+            "redis.call('HDEL', KEYS[1], ARGV[1]) " +
+            "decrementQuestionSet(KEYS[4], cur) " +
+            "if ARGV[3] ~= '' then redis.call('LPUSH', KEYS[3], ARGV[3]) end " +
+            "if redis.call('GET', KEYS[5]) == ARGV[1] then redis.call('DEL', KEYS[5]) end " +
+            "return 1",
+            Long.class);
+
+    // ack / discard: in-flight 항목과 lease 를 지우고 질문 세트별 건수를 줄임
+    // KEYS: inflight, leases, inflightQuestionSets / ARGV: queueId
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>(
+            DECREMENT_QUESTION_SET +
+            "local cur = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "redis.call('HDEL', KEYS[1], ARGV[1]) " +
+            "redis.call('ZREM', KEYS[2], ARGV[1]) " +
+            "decrementQuestionSet(KEYS[3], cur) " +
+            "if cur then return 1 end " +
+            "return 0",
+            Long.class);
+
+    // fencing token 이 일치할 때만 lease 연장 + 세션 연결 + 발신 잠금 연장
+    // KEYS: inflight, leases, sessionKey, lockKey / ARGV: queueId, token, deadline, ttlMs, sessionIndex
+    private static final RedisScript<Long> BIND_SCRIPT = new DefaultRedisScript<>(
+            "local cur = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if not cur then return 0 end " +
+            "local item = cjson.decode(cur) " +
+            "if tostring(item['fencingToken']) ~= ARGV[2] then return 0 end " +
+            "item['sessionIndex'] = tonumber(ARGV[5]) " +
+            "redis.call('HSET', KEYS[1], ARGV[1], cjson.encode(item)) " +
+            "redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1]) " +
+            "redis.call('SET', KEYS[3], ARGV[1], 'PX', ARGV[4]) " +
+            "redis.call('SET', KEYS[4], ARGV[1], 'PX', ARGV[4]) " +
+            "return 1",
+            Long.class);
+
+    // 잠금이 아직 이 항목 소유일 때만 해제
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0",
+            Long.class);
+
+    // 항목 해시 갱신 + 이전 상태 인덱스에서 제거 + 새 상태 인덱스에 추가
+    // 이전 상태 인덱스 키는 항목 해시를 읽어야 정해지므로 ARGV 의 prefix 로 만듦 (같은 해시 태그라 같은 슬롯)
+    // KEYS: itemKey, newStateIndex / ARGV: queueId, state, now, indexPrefix, ttlSeconds, [field, value]...
+    private static final RedisScript<Long> TRANSITION_SCRIPT = new DefaultRedisScript<>(
+            "local prev = redis.call('HGET', KEYS[1], 'state') " +
+            "if prev and prev ~= ARGV[2] then redis.call('ZREM', ARGV[4] .. prev, ARGV[1]) end " +
+            "redis.call('HSET', KEYS[1], 'queueId', ARGV[1], 'state', ARGV[2], 'updatedTime', ARGV[3]) " +
+            "for i = 6, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1]) " +
+            "if tonumber(ARGV[5]) > 0 then redis.call('EXPIRE', KEYS[1], ARGV[5]) end " +
+            "return 1",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final DispatchWorkerRegistry workerRegistry;
+
+    @Value("${call.queue.dispatch-lease-seconds:60}")
+    private long dispatchLeaseSeconds;
+
+    @Value("${call.queue.consultation-lease-minutes:30}")
+    private long consultationLeaseMinutes;
+
+    @Value("${call.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${call.queue.state-retention-hours:24}")
+    private long stateRetentionHours;
+
+    @Value("${call.queue.single-question-set:true}")
+    private boolean singleQuestionSet;
+
+    @PostConstruct
+    void migrateLegacyKeys() {
+        RedisKeyMigration.renamePrefix(stringRedisTemplate, LEGACY_KEY_PREFIX, KEY_PREFIX);
+        RedisKeyMigration.renamePrefix(stringRedisTemplate, LEGACY_DIAL_LOCK_PREFIX, DIAL_LOCK_PREFIX);
+    }
+
+    public void enqueueAll(List<QueueItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        // 항목 해시와 WAITING 인덱스는 파이프라인 한 번으로 기록
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> waiting = new HashSet<>();
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (QueueItem item : items) {
+                    Map<String, String> hash = toHash(item);
+                    hash.put("updatedTime", String.valueOf(now));
+                    ops.opsForHash().putAll(itemKey(item.getQueueId()), hash);
+                    waiting.add(new DefaultTypedTuple<>(item.getQueueId(), (double) now));
+                }
+                ops.opsForZSet().add(STATE_INDEX_PREFIX + STATE_WAITING, waiting);
+                return null;
+            }
+        });
+
+        // 다건 RPUSH 한 번으로 적재 (queue:waiting 은 reaper/반납과 같은 JSON 형식으로만 기록)
+        stringRedisTemplate.opsForList().rightPushAll(WAITING_QUEUE_KEY,
+                items.stream().map(this::toJson).toList());
+    }
+
+    public long waitingCount() {
+        Long size = stringRedisTemplate.opsForList().size(WAITING_QUEUE_KEY);
+        return size != null ? size : 0L;
+    }
+
+    /** 대기열의 [start, end] 구간을 순서대로 조회합니다. (꺼내지 않음) */
+    public List<QueueItem> range(long start, long end) {
+        List<String> rawItems = stringRedisTemplate.opsForList().range(WAITING_QUEUE_KEY, start, end);
+        if (rawItems == null || rawItems.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return rawItems.stream()
+                .map(this::fromJson)
+                .toList();
+    }
+
+    /**
+     * 항목 하나의 현재 상태를 조회합니다.
+     * @return 상태 해시, 없으면 null
+     */
+    public QueueItemStateDto getItemState(String queueId) {
+        Map<Object, Object> hash = stringRedisTemplate.opsForHash().entries(itemKey(queueId));
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+        return QueueItemStateDto.builder()
+                .queueId(queueId)
+                .vulnerableId(str(hash.get("vulnerableId")))
+                .questionSetId(str(hash.get("questionSetId")))
+                .accountId(str(hash.get("accountId")))
+                .state(str(hash.get("state")))
+                .attempts(hash.get("attempts") != null ? Integer.parseInt(hash.get("attempts").toString()) : 0)
+                .sessionIndex(hash.get("sessionIndex") != null ? Integer.valueOf(hash.get("sessionIndex").toString()) : null)
+                .createdTime(str(hash.get("createdTime")))
+                .startTime(str(hash.get("startTime")))
+                .endTime(str(hash.get("endTime")))
+                .lastError(str(hash.get("lastError")))
+                .build();
+    }
+
+    /** 상태별 현재 건수 (ZCARD) */
+    public Map<String, Long> countByState() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String state : STATES) {
+            Long count = stringRedisTemplate.opsForZSet().zCard(STATE_INDEX_PREFIX + state);
+            counts.put(state, count != null ? count : 0L);
+        }
+        return counts;
+    }
+
+    /** 지정 시각 이후 상태별로 전이된 건수 (ZCOUNT) */
+    public Map<String, Long> countByStateSince(long sinceMillis) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String state : STATES) {
+            Long count = stringRedisTemplate.opsForZSet()
+                    .count(STATE_INDEX_PREFIX + state, sinceMillis, Double.POSITIVE_INFINITY);
+            counts.put(state, count != null ? count : 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * 대기열 맨 앞 항목을 꺼내 dispatch lease 와 대상자 발신 잠금을 잡습니다.
+     * @param pausedQuestionSetIds 지금은 꺼내지 않을 질문 세트 (속도 제한 대기 중 등)
+     * @return 꺼낸 항목 (owner/fencingToken 포함), 또는 대기열이 비었는지 / 앞쪽 항목을 지금은 꺼낼 수 없는지
+     */
+    public ClaimResult claim(Set<String> pausedQuestionSetIds) {
+        long leaseMillis = TimeUnit.SECONDS.toMillis(dispatchLeaseSeconds);
+        long deadline = System.currentTimeMillis() + leaseMillis;
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(deadline));
+        args.add(workerRegistry.getWorkerId());
+        args.add(DIAL_LOCK_PREFIX);
+        args.add(String.valueOf(leaseMillis));
+        args.add(String.valueOf(CLAIM_SCAN_LIMIT));
+        args.add(singleQuestionSet ? "1" : "0");
+        args.addAll(pausedQuestionSetIds);
+        String raw = stringRedisTemplate.execute(CLAIM_SCRIPT,
+                List.of(WAITING_QUEUE_KEY, INFLIGHT_KEY, LEASE_KEY, FENCE_KEY, INFLIGHT_QUESTION_SETS_KEY),
+                args.toArray());
+        if (raw == null) {
+            return ClaimResult.EMPTY;
+        }
+        if (BLOCKED.equals(raw)) {
+            return ClaimResult.BLOCKED;
+        }
+
+        QueueItem item = fromJson(raw);
+        item.setState(STATE_IN_PROGRESS);
+        item.setStartTime(LocalDateTime.now());
+        transition(item.getQueueId(), STATE_IN_PROGRESS, Map.of("startTime", item.getStartTime().toString()));
+        return new ClaimResult(item, false);
+    }
+
+    /**
+     * claim 결과. item 이 null 이면 보낼 항목이 없으며,
+     * blocked 가 true 이면 대기 항목은 있지만 발신 중인 대상자이거나 다른 질문 세트 진행 중 / 일시 중지된 질문 세트라
+     * 지금은 꺼낼 수 없음을 뜻합니다.
+     */
+    public record ClaimResult(QueueItem item, boolean blocked) {
+        static final ClaimResult EMPTY = new ClaimResult(null, false);
+        static final ClaimResult BLOCKED = new ClaimResult(null, true);
+
+        /** 대기열이 실제로 비어 있는지 */
+        public boolean isEmpty() {
+            return item == null && !blocked;
+        }
+    }
+
+    /**
+     * 오케스트레이터가 상담을 받은 뒤, 결과가 올 때까지 lease 와 발신 잠금을 연장하고 세션과 연결합니다.
+     * @return fencing token 이 더 이상 유효하지 않으면 (다른 worker 가 다시 가져갔으면) false
+     */
+    public boolean bindSession(QueueItem item, String vulnerableId, int sessionIndex) {
+        long leaseMillis = TimeUnit.MINUTES.toMillis(consultationLeaseMinutes);
+        Long bound = stringRedisTemplate.execute(BIND_SCRIPT,
+                List.of(INFLIGHT_KEY, LEASE_KEY, sessionKey(vulnerableId, sessionIndex), dialLockKey(vulnerableId)),
+                item.getQueueId(), fencingToken(item),
+                String.valueOf(System.currentTimeMillis() + leaseMillis),
+                String.valueOf(Duration.ofMinutes(consultationLeaseMinutes * 2).toMillis()),
+                String.valueOf(sessionIndex));
+        if (bound == null || bound == 0) {
+            log.warn("Queue item {} was fenced off (token {}), skipping session bind", item.getQueueId(), item.getFencingToken());
+            return false;
+        }
+        item.setSessionIndex(sessionIndex);
+        transition(item.getQueueId(), STATE_IN_PROGRESS, Map.of("sessionIndex", String.valueOf(sessionIndex)));
+        return true;
+    }
+
+    /**
+     * LLM 결과 수신 시 해당 회차의 항목을 완료 처리합니다.
+     * @return 대기열 항목이 연결되어 있었으면 true
+     */
+    public boolean ack(String vulnerableId, Integer sessionIndex) {
+        if (vulnerableId == null || sessionIndex == null) {
+            return false;
+        }
+        String queueId = stringRedisTemplate.opsForValue().getAndDelete(sessionKey(vulnerableId, sessionIndex));
+        if (queueId == null) {
+            return false;
+        }
+        removeInFlight(queueId);
+        unlockDial(vulnerableId, queueId);
+        transition(queueId, STATE_COMPLETED, Map.of("endTime", LocalDateTime.now().toString()));
+        log.info("Acked queue item {} for vulnerable {} session {}", queueId, vulnerableId, sessionIndex);
+        return true;
+    }
+
+    /** 다시 시도해도 소용없는 항목(대상자/질문 세트 없음 등)을 실패로 종료합니다. */
+    public void discard(QueueItem item, String reason) {
+        removeInFlight(item.getQueueId());
+        unlockDial(item.getVulnerableId(), item.getQueueId());
+        transition(item.getQueueId(), STATE_FAILED, Map.of(
+                "endTime", LocalDateTime.now().toString(),
+                "lastError", reason));
+    }
+
+    /**
+     * 전송에 실패한 항목을 반납합니다. 최대 시도 횟수를 넘으면 queue:dead 로 옮깁니다.
+     * @return 대기열로 되돌렸으면 true
+     */
+    public boolean release(QueueItem item, String reason) {
+        return release(item, Long.MAX_VALUE, reason);
+    }
+
+    /** 속도 제한 등으로 보내지 못한 항목을 시도 횟수 증가 없이 대기열 맨 앞으로 되돌립니다. */
+    public void requeueFront(QueueItem item) {
+        String token = fencingToken(item);
+        item.setState(STATE_WAITING);
+        item.setStartTime(null);
+        clearOwnership(item);
+
+        Long released = stringRedisTemplate.execute(RELEASE_SCRIPT,
+                List.of(INFLIGHT_KEY, LEASE_KEY, WAITING_QUEUE_KEY, INFLIGHT_QUESTION_SETS_KEY,
+                        dialLockKey(item.getVulnerableId())),
+                item.getQueueId(), String.valueOf(Long.MAX_VALUE), toJson(item), token);
+        if (released != null && released > 0) {
+            transition(item.getQueueId(), STATE_WAITING, Map.of());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${call.queue.reaper-interval-ms:30000}")
+    public void reapExpiredLeases() {
+        long now = System.currentTimeMillis();
+        Set<String> expired = stringRedisTemplate.opsForZSet()
+                .rangeByScore(LEASE_KEY, 0, now, 0, REAP_BATCH_SIZE);
+        if (expired == null || expired.isEmpty()) {
+            return;
+        }
+
+        int requeued = 0;
+        for (String queueId : expired) {
+            Object raw = stringRedisTemplate.opsForHash().get(INFLIGHT_KEY, queueId);
+            if (raw == null) {
+                stringRedisTemplate.opsForZSet().remove(LEASE_KEY, queueId);
+                continue;
+            }
+            if (release(fromJson(raw.toString()), now, "LEASE_EXPIRED")) {
+                requeued++;
+            }
+        }
+        log.warn("Reaped {} expired queue leases ({} re-queued)", expired.size(), requeued);
+    }
+
+    /**
+     * heartbeat 가 끊긴 worker 가 오케스트레이터에 보내기 전에 쥐고 있던 항목을 바로 회수합니다.
+     * 세션이 연결된 항목은 결과가 어느 서버로든 도착할 수 있으므로 lease 만료까지 기다립니다.
+     */
+    @Scheduled(fixedDelayString = "${call.worker.orphan-reaper-interval-ms:10000}")
+    public void reapOrphanedClaims() {
+        long now = System.currentTimeMillis();
+        // 아직 dispatch lease 구간에 있는 (세션 연결 전) 항목만 대상
+        long dispatchHorizon = now + TimeUnit.SECONDS.toMillis(dispatchLeaseSeconds);
+        Set<String> pending = stringRedisTemplate.opsForZSet()
+                .rangeByScore(LEASE_KEY, now, dispatchHorizon, 0, REAP_BATCH_SIZE);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+
+        int reclaimed = 0;
+        for (String queueId : pending) {
+            Object raw = stringRedisTemplate.opsForHash().get(INFLIGHT_KEY, queueId);
+            if (raw == null) {
+                continue;
+            }
+            QueueItem item = fromJson(raw.toString());
+            if (item.getSessionIndex() != null || workerRegistry.isAlive(item.getOwner())) {
+                continue;
+            }
+            release(item, Long.MAX_VALUE, "WORKER_LOST");
+            reclaimed++;
+        }
+        if (reclaimed > 0) {
+            log.warn("Reclaimed {} queue items from dead workers", reclaimed);
+        }
+    }
+
+    /** 보존 기간이 지난 종료 상태 인덱스 항목을 정리합니다. (항목 해시는 EXPIRE 로 사라짐) */
+    @Scheduled(fixedDelayString = "${call.queue.reaper-interval-ms:30000}")
+    public void trimStateIndexes() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(stateRetentionHours);
+        stringRedisTemplate.opsForZSet().removeRangeByScore(STATE_INDEX_PREFIX + STATE_COMPLETED, 0, cutoff);
+        stringRedisTemplate.opsForZSet().removeRangeByScore(STATE_INDEX_PREFIX + STATE_FAILED, 0, cutoff);
+    }
+
+    private boolean release(QueueItem item, long expiredBefore, String reason) {
+        String token = fencingToken(item);
+        item.setAttempts(item.getAttempts() + 1);
+        item.setStartTime(null);
+        item.setEndTime(null);
+        clearOwnership(item);
+
+        boolean retry = item.getAttempts() < maxAttempts;
+        item.setState(retry ? STATE_WAITING : STATE_FAILED);
+
+        Long released = stringRedisTemplate.execute(RELEASE_SCRIPT,
+                List.of(INFLIGHT_KEY, LEASE_KEY, retry ? WAITING_QUEUE_KEY : DEAD_QUEUE_KEY, INFLIGHT_QUESTION_SETS_KEY,
+                        dialLockKey(item.getVulnerableId())),
+                item.getQueueId(), String.valueOf(expiredBefore), toJson(item), token);
+        if (released == null || released == 0) {
+            return false;
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put("attempts", String.valueOf(item.getAttempts()));
+        fields.put("lastError", reason != null ? reason : "UNKNOWN");
+        if (!retry) {
+            fields.put("endTime", LocalDateTime.now().toString());
+        }
+        transition(item.getQueueId(), item.getState(), fields);
+
+        if (!retry) {
+            log.error("Queue item {} exceeded {} attempts, moved to {}", item.getQueueId(), maxAttempts, DEAD_QUEUE_KEY);
+        }
+        return retry;
+    }
+
+    private void removeInFlight(String queueId) {
+        stringRedisTemplate.execute(REMOVE_SCRIPT,
+                List.of(INFLIGHT_KEY, LEASE_KEY, INFLIGHT_QUESTION_SETS_KEY), queueId);
+    }
+
+    private void unlockDial(String vulnerableId, String queueId) {
+        if (vulnerableId != null) {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(dialLockKey(vulnerableId)), queueId);
+        }
+    }
+
+    private void clearOwnership(QueueItem item) {
+        item.setOwner(null);
+        item.setFencingToken(null);
+        item.setSessionIndex(null);
+    }
+
+    private String fencingToken(QueueItem item) {
+        return item.getFencingToken() != null ? String.valueOf(item.getFencingToken()) : "";
+    }
+
+    private String dialLockKey(String vulnerableId) {
+        return DIAL_LOCK_PREFIX + vulnerableId;
+    }
+
+    private void transition(String queueId, String state, Map<String, String> fields) {
+        boolean terminal = STATE_COMPLETED.equals(state) || STATE_FAILED.equals(state);
+        long ttlSeconds = terminal ? TimeUnit.HOURS.toSeconds(stateRetentionHours) : 0;
+
+        List<String> args = new ArrayList<>();
+        args.add(queueId);
+        args.add(state);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(STATE_INDEX_PREFIX);
+        args.add(String.valueOf(ttlSeconds));
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        stringRedisTemplate.execute(TRANSITION_SCRIPT,
+                List.of(itemKey(queueId), STATE_INDEX_PREFIX + state), args.toArray());
+    }
+
+    private Map<String, String> toHash(QueueItem item) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put("queueId", item.getQueueId());
+        hash.put("vulnerableId", item.getVulnerableId());
+        hash.put("questionSetId", item.getQuestionSetId());
+        hash.put("state", STATE_WAITING);
+        hash.put("attempts", String.valueOf(item.getAttempts()));
+        if (item.getCreatedTime() != null) {
+            hash.put("createdTime", item.getCreatedTime().toString());
+        }
+        if (item.getAccountId() != null) {
+            hash.put("accountId", item.getAccountId());
+        }
+        return hash;
+    }
+
+    private String itemKey(String queueId) {
+        return ITEM_KEY_PREFIX + queueId;
+    }
+
+    private String str(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private String sessionKey(String vulnerableId, int sessionIndex) {
+        return SESSION_KEY_PREFIX + vulnerableId + ":" + sessionIndex;
+    }
+
+    private QueueItem fromJson(String raw) {
+        try {
+            return objectMapper.readValue(raw, QueueItem.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid queue item payload: " + raw, e);
+        }
+    }
+
+    private String toJson(QueueItem item) {
+        try {
+            return objectMapper.writeValueAsString(item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize queue item " + item.getQueueId(), e);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package voicebot.management.call.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import voicebot.management.call.dto.LlmResultDto;
+import voicebot.management.common.RedisKeyMigration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LLM 상담 결과 write-behind 버퍼.
+ * <p>
+ * 수신한 결과는 Redis 리스트 {llm}:results:pending 에 쌓고 바로 응답하며 (상한 초과 시 거절),
+ * flusher 가 묶음 단위로 {llm}:results:processing:{workerId} 로 옮겨 ConsultationResultWriter 로 저장합니다.
+ * 묶음 저장이 실패하면 한 건씩 다시 저장해 실패한 항목만 pending 맨 앞으로 되돌리고,
+ * max-attempts 회 넘게 실패한 항목은 {llm}:results:dead 로 옮겨 뒤의 결과를 막지 않게 합니다.
+ * worker 가 죽으면 processing 리스트는 pending 맨 앞으로 되돌아갑니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsultationResultBuffer {
+
+    // 스크립트가 pending 과 processing / 중복 표시 키를 함께 다루므로 Redis Cluster 에서도 한 슬롯에 모이도록 {llm} 해시 태그 공유
+    private static final String KEY_PREFIX = "{llm}:";
+    private static final String PENDING_KEY = KEY_PREFIX + "results:pending";
+    private static final String PROCESSING_PREFIX = KEY_PREFIX + "results:processing:";
+    private static final String DEAD_KEY = KEY_PREFIX + "results:dead";
+    private static final String DEDUP_PREFIX = KEY_PREFIX + "result:";
+    private static final String ATTEMPTS_KEY = KEY_PREFIX + "results:attempts";
+    private static final String LEGACY_KEY_PREFIX = "llm:";
+    private static final int MAX_BATCHES_PER_FLUSH = 20;
+
+    // 중복 확인 + 상한 확인 + RPUSH + 중복 표시를 원자적으로 처리 (표시만 남고 결과가 빠지는 경우 없음)
+    // KEYS: pending, dedupKey(회차를 모르면 생략) / ARGV: payload, maxSize, dedupTtlSeconds
+    // 반환: 1 = 받음, 0 = 가득 참, -1 = 이미 받은 결과
+    private static final RedisScript<Long> OFFER_SCRIPT = new DefaultRedisScript<>(
+            "if #KEYS > 1 and redis.call('EXISTS', KEYS[2]) == 1 then return -1 end " +
+            "if redis.call('LLEN', KEYS[1]) >= tonumber(ARGV[2]) then return 0 end " +
+            "redis.call('RPUSH', KEYS[1], ARGV[1]) " +
+            "if #KEYS > 1 then redis.call('SET', KEYS[2], 'ACCEPTED', 'EX', ARGV[3]) end " +
+            "return 1",
+            Long.class);
+
+    public enum OfferResult { ACCEPTED, DUPLICATE, FULL }
+
+    // pending 앞에서 최대 ARGV[1] 건을 processing 으로 옮기고 processing 전체를 반환
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TAKE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, tonumber(ARGV[1]) do " +
+            "  if not redis.call('LMOVE', KEYS[1], KEYS[2], 'LEFT', 'RIGHT') then break end " +
+            "end " +
+            "return redis.call('LRANGE', KEYS[2], 0, -1)",
+            List.class);
+
+    // processing 을 원래 순서대로 pending 맨 앞에 되돌림
+    private static final RedisScript<Long> RESTORE_SCRIPT = new DefaultRedisScript<>(
+            "local n = 0 " +
+            "while redis.call('LMOVE', KEYS[2], KEYS[1], 'RIGHT', 'LEFT') do n = n + 1 end " +
+            "return n",
+            Long.class);
+
+    // 다시 시도할 항목을 원래 순서대로 pending 맨 앞에 넣고 processing 을 비움
+    // KEYS: pending, processing / ARGV: 다시 시도할 항목들
+    private static final RedisScript<Long> REQUEUE_SCRIPT = new DefaultRedisScript<>(
+            "for i = #ARGV, 1, -1 do redis.call('LPUSH', KEYS[1], ARGV[i]) end " +
+            "redis.call('DEL', KEYS[2]) " +
+            "return #ARGV",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ConsultationResultWriter resultWriter;
+    private final DispatchWorkerRegistry workerRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${call.result.buffer-max-size:10000}")
+    private long maxSize;
+
+    @Value("${call.result.batch-size:200}")
+    private int batchSize;
+
+    @Value("${call.result.dedup-ttl-hours:24}")
+    private long dedupTtlHours;
+
+    @Value("${call.result.max-attempts:5}")
+    private int maxAttempts;
+
+    private final AtomicLong pendingSize = new AtomicLong();
+    private Counter acceptedCounter;
+    private Counter rejectedCounter;
+    private Counter writtenCounter;
+    private Counter failedFlushCounter;
+    private Counter deadCounter;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void init() {
+        acceptedCounter = Counter.builder("call.results.accepted").register(meterRegistry);
+        rejectedCounter = Counter.builder("call.results.rejected")
+                .description("Results rejected because the buffer was full").register(meterRegistry);
+        writtenCounter = Counter.builder("call.results.written").register(meterRegistry);
+        failedFlushCounter = Counter.builder("call.results.flush.failed").register(meterRegistry);
+        deadCounter = Counter.builder("call.results.dead")
+                .description("Results moved to the dead-letter list after repeated write failures").register(meterRegistry);
+        flushTimer = Timer.builder("call.results.flush").register(meterRegistry);
+        Gauge.builder("call.results.pending", pendingSize, AtomicLong::get).register(meterRegistry);
+
+        // 해시 태그를 붙이기 전의 키 (저장 대기 결과, 중복 표시) 를 새 이름으로 옮김
+        RedisKeyMigration.renamePrefix(stringRedisTemplate, LEGACY_KEY_PREFIX, KEY_PREFIX);
+    }
+
+    /**
+     * 결과를 버퍼에 넣습니다. 같은 (vulnerableId, sessionIndex) 결과는 dedup-ttl-hours 동안 한 번만 받습니다.
+     * @return ACCEPTED, 이미 받은 결과면 DUPLICATE, 버퍼가 가득 찼으면 FULL
+     */
+    public OfferResult offer(LlmResultDto dto) {
+        String raw;
+        try {
+            raw = objectMapper.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize LLM result", e);
+        }
+        List<String> keys = dto.getVulnerableId() != null && dto.getSessionIndex() != null
+                ? List.of(PENDING_KEY, DEDUP_PREFIX + dto.getVulnerableId() + ":" + dto.getSessionIndex())
+                : List.of(PENDING_KEY);
+        Long result = stringRedisTemplate.execute(OFFER_SCRIPT, keys,
+                raw, String.valueOf(maxSize), String.valueOf(TimeUnit.HOURS.toSeconds(dedupTtlHours)));
+        if (result != null && result < 0) {
+            return OfferResult.DUPLICATE;
+        }
+        if (result == null || result == 0) {
+            rejectedCounter.increment();
+            return OfferResult.FULL;
+        }
+        acceptedCounter.increment();
+        return OfferResult.ACCEPTED;
+    }
+
+    @Scheduled(fixedDelayString = "${call.result.flush-interval-ms:200}")
+    public void flush() {
+        String processingKey = processingKey(workerRegistry.getWorkerId());
+        for (int i = 0; i < MAX_BATCHES_PER_FLUSH; i++) {
+            List<?> raws = stringRedisTemplate.execute(TAKE_SCRIPT, List.of(PENDING_KEY, processingKey),
+                    String.valueOf(batchSize));
+            if (raws == null || raws.isEmpty()) {
+                break;
+            }
+
+            List<BufferedResult> decoded = decode(raws);
+            List<LlmResultDto> batch = decoded.stream().map(BufferedResult::dto).toList();
+            try {
+                flushTimer.record(() -> resultWriter.writeBatch(batch));
+                stringRedisTemplate.delete(processingKey);
+                clearAttempts(decoded);
+                writtenCounter.increment(batch.size());
+            } catch (Exception e) {
+                failedFlushCounter.increment();
+                log.warn("Failed to flush {} LLM results as a batch, retrying one by one: {}", batch.size(), e.getMessage());
+                flushOneByOne(decoded, processingKey);
+                break;
+            }
+            if (raws.size() < batchSize) {
+                break;
+            }
+        }
+
+        Long size = stringRedisTemplate.opsForList().size(PENDING_KEY);
+        pendingSize.set(size != null ? size : 0L);
+    }
+
+    /** heartbeat 가 끊긴 worker 가 처리하던 묶음을 pending 으로 되돌립니다. */
+    @Scheduled(fixedDelayString = "${call.worker.orphan-reaper-interval-ms:10000}")
+    public void recoverOrphanedBatches() {
+        ScanOptions options = ScanOptions.scanOptions().match(PROCESSING_PREFIX + "*").count(100).build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                String owner = key.substring(PROCESSING_PREFIX.length());
+                if (!workerRegistry.isAlive(owner)) {
+                    Long restored = stringRedisTemplate.execute(RESTORE_SCRIPT, List.of(PENDING_KEY, key));
+                    log.warn("Restored {} LLM results from dead worker {}", restored, owner);
+                }
+            }
+        }
+    }
+
+    /**
+     * 묶음 저장이 실패했을 때 한 건씩 저장합니다.
+     * 실패한 항목은 시도 횟수를 올려 pending 맨 앞으로 되돌리고, max-attempts 에 도달하면 dead 리스트로 옮깁니다.
+     */
+    private void flushOneByOne(List<BufferedResult> decoded, String processingKey) {
+        List<String> retry = new ArrayList<>();
+        int written = 0;
+        for (BufferedResult result : decoded) {
+            try {
+                resultWriter.writeBatch(List.of(result.dto()));
+                stringRedisTemplate.opsForHash().delete(ATTEMPTS_KEY, result.attemptKey());
+                written++;
+            } catch (Exception e) {
+                long attempts = stringRedisTemplate.opsForHash().increment(ATTEMPTS_KEY, result.attemptKey(), 1);
+                if (attempts >= maxAttempts) {
+                    log.error("LLM result {} failed {} times, moved to {}: {}",
+                            result.attemptKey(), attempts, DEAD_KEY, e.getMessage(), e);
+                    stringRedisTemplate.opsForList().rightPush(DEAD_KEY, result.raw());
+                    stringRedisTemplate.opsForHash().delete(ATTEMPTS_KEY, result.attemptKey());
+                    deadCounter.increment();
+                } else {
+                    log.warn("LLM result {} write failed (attempt {}/{}), will retry: {}",
+                            result.attemptKey(), attempts, maxAttempts, e.getMessage());
+                    retry.add(result.raw());
+                }
+            }
+        }
+        stringRedisTemplate.execute(REQUEUE_SCRIPT, List.of(PENDING_KEY, processingKey), retry.toArray());
+        writtenCounter.increment(written);
+    }
+
+    private void clearAttempts(List<BufferedResult> decoded) {
+        if (!decoded.isEmpty()) {
+            stringRedisTemplate.opsForHash().delete(ATTEMPTS_KEY,
+                    decoded.stream().map(BufferedResult::attemptKey).toArray());
+        }
+    }
+
+    private List<BufferedResult> decode(List<?> raws) {
+        List<BufferedResult> batch = new ArrayList<>(raws.size());
+        for (Object raw : raws) {
+            try {
+                LlmResultDto dto = objectMapper.readValue(raw.toString(), LlmResultDto.class);
+                batch.add(new BufferedResult(raw.toString(), dto));
+            } catch (JsonProcessingException e) {
+                // 해석할 수 없는 항목은 재시도해도 실패하므로 따로 보관
+                log.error("Invalid buffered LLM result moved to {}: {}", DEAD_KEY, e.getMessage());
+                stringRedisTemplate.opsForList().rightPush(DEAD_KEY, raw.toString());
+            }
+        }
+        return batch;
+    }
+
+    private String processingKey(String workerId) {
+        return PROCESSING_PREFIX + workerId;
+    }
+
+    /** 버퍼에 들어 있던 원문과 해석한 결과. 시도 횟수는 (vulnerableId, sessionIndex) 기준, 없으면 원문 기준 */
+    private record BufferedResult(String raw, LlmResultDto dto) {
+        String attemptKey() {
+            return dto.getVulnerableId() != null && dto.getSessionIndex() != null
+                    ? dto.getVulnerableId() + ":" + dto.getSessionIndex()
+                    : raw;
+        }
+    }
+}
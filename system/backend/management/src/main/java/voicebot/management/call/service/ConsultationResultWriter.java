@@ -0,0 +1,338 @@
+package voicebot.management.call.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import voicebot.management.call.dto.ConsultationStatusDto;
+import voicebot.management.call.dto.LlmResultDto;
+import voicebot.management.common.SearchGrams;
+import voicebot.management.history.entity.Consultation;
+import voicebot.management.history.service.ConsultationReadModel;
+import voicebot.management.vulnerable.entity.Vulnerable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 버퍼에 쌓인 LLM 결과 묶음을 Mongo bulk 연산으로 저장합니다.
+ * <ul>
+ *     <li>Consultation 은 unordered bulk insert (v_id + s_index 중복은 건너뜀)</li>
+ *     <li>Vulnerable 은 문서 전체 저장 대신 vulnerabilities 필드만 bulk update.
+ *     delete/new_vulnerabilities 가 오면 $pull / $push 로 변경분만 반영하고,
+ *     없으면 result_vulnerabilities 로 목록을 교체합니다.</li>
+ *     <li>반영이 끝난 상담은 vulnerable_applied 를 true 로 표시합니다. 재시도 중 상담은 이미 저장(중복)됐지만
+ *     표시가 false 인 결과는 Vulnerable 반영을 다시 수행합니다. 반영 연산은 같은 결과로 여러 번 실행해도 결과가 같습니다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsultationResultWriter {
+
+    private static final String ACCOUNT_MAPPING_PREFIX = "consult:account:";
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MonitoringService monitoringService;
+    private final DisplayNameCache displayNameCache;
+
+    public void writeBatch(List<LlmResultDto> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+
+        List<Consultation> consultations = toConsultations(results);
+
+        // 1) 상담 내역 저장
+        Set<Integer> duplicates = new HashSet<>();
+        BulkOperations inserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Consultation.class);
+        inserts.insert(consultations);
+        try {
+            inserts.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY_CODE) {
+                    throw e;
+                }
+                duplicates.add(error.getIndex());
+            }
+        }
+
+        // 중복 중에서도 이전 시도에서 Vulnerable 반영 전에 실패한 결과는 다시 반영
+        Set<String> unapplied = unappliedKeys(duplicates.stream().map(consultations::get).toList());
+
+        List<Consultation> stored = new ArrayList<>();
+        List<Consultation> toApply = new ArrayList<>();
+        for (int i = 0; i < consultations.size(); i++) {
+            Consultation consultation = consultations.get(i);
+            if (!duplicates.contains(i)) {
+                stored.add(consultation);
+                toApply.add(consultation);
+            } else if (unapplied.contains(sessionKey(consultation))) {
+                log.info("Consultation already stored but not yet applied for vulnerableId={}, sessionIndex={}. Re-applying.",
+                        consultation.getVulnerableId(), consultation.getSIndex());
+                toApply.add(consultation);
+            } else {
+                log.info("Consultation already stored for vulnerableId={}, sessionIndex={}. Skipping.",
+                        consultation.getVulnerableId(), consultation.getSIndex());
+            }
+        }
+        if (toApply.isEmpty()) {
+            return;
+        }
+
+        // 2) 취약계층 최신 위험/욕구 반영
+        // 같은 문서에 $pull 뒤 $push 가 순서대로 적용되어야 하므로 ORDERED
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Vulnerable.class);
+        int updateCount = 0;
+        for (Consultation consultation : toApply) {
+            if (consultation.getVulnerableId() != null) {
+                updateCount += addVulnerabilityUpdates(updates, consultation);
+            }
+        }
+        if (updateCount > 0) {
+            updates.execute();
+        }
+        markApplied(toApply);
+        log.info("Flushed {} consultation results ({} duplicates, {} re-applied, {} vulnerable updates)",
+                stored.size(), duplicates.size(), toApply.size() - stored.size(), updateCount);
+        if (stored.isEmpty()) {
+            return;
+        }
+
+        // 3) 모니터링 화면에 완료 알림
+        Map<String, String> names = displayNameCache.getVulnerableNames(
+                stored.stream().map(Consultation::getVulnerableId).toList());
+        for (Consultation consultation : stored) {
+            monitoringService.sendUpdate(ConsultationStatusDto.builder()
+                    .vulnerableId(consultation.getVulnerableId())
+                    .vulnerableName(names.get(consultation.getVulnerableId()))
+                    .questionSetId(consultation.getQuestionSetId())
+                    .accountId(consultation.getAccountId())
+                    .status("COMPLETED")
+                    .build());
+        }
+    }
+
+    /** 이미 저장된 상담 중 vulnerable_applied 가 false 인 것의 (v_id, s_index) 키 */
+    private Set<String> unappliedKeys(List<Consultation> duplicated) {
+        if (duplicated.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Criteria> sessions = duplicated.stream()
+                .map(c -> Criteria.where("v_id").is(c.getVulnerableId()).and("s_index").is(c.getSIndex()))
+                .toList();
+        Query query = Query.query(new Criteria().andOperator(
+                new Criteria().orOperator(sessions.toArray(new Criteria[0])),
+                Criteria.where("vulnerable_applied").is(false)));
+        query.fields().include("v_id", "s_index");
+        Set<String> keys = new HashSet<>();
+        for (Consultation c : mongoTemplate.find(query, Consultation.class)) {
+            keys.add(sessionKey(c));
+        }
+        return keys;
+    }
+
+    private void markApplied(List<Consultation> applied) {
+        BulkOperations marks = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Consultation.class);
+        for (Consultation c : applied) {
+            marks.updateOne(Query.query(Criteria.where("v_id").is(c.getVulnerableId()).and("s_index").is(c.getSIndex())),
+                    Update.update("vulnerable_applied", true));
+        }
+        marks.execute();
+    }
+
+    private String sessionKey(Consultation consultation) {
+        return consultation.getVulnerableId() + ":" + consultation.getSIndex();
+    }
+
+    private List<Consultation> toConsultations(List<LlmResultDto> results) {
+        // 계정 매핑은 MGET 한 번으로 조회
+        List<String> mappingKeys = results.stream()
+                .map(dto -> dto.getVulnerableId() != null && dto.getSessionIndex() != null
+                        ? ACCOUNT_MAPPING_PREFIX + dto.getVulnerableId() + ":" + dto.getSessionIndex()
+                        : ACCOUNT_MAPPING_PREFIX)
+                .toList();
+        List<Object> accounts = Optional.ofNullable(redisTemplate.opsForValue().multiGet(mappingKeys))
+                .orElse(Collections.emptyList());
+
+        // 이력 읽기 모델용 이름/제목
+        Map<String, String> names = displayNameCache.getVulnerableNames(
+                results.stream().map(LlmResultDto::getVulnerableId).toList());
+        Map<String, String> titles = displayNameCache.getQuestionSetTitles(
+                results.stream().map(LlmResultDto::getQuestionSetId).toList());
+
+        List<Consultation> consultations = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Object rawAccount = i < accounts.size() ? accounts.get(i) : null;
+            Consultation consultation = toConsultation(results.get(i), rawAccount != null ? rawAccount.toString() : null);
+            consultation.setVulnerableName(names.get(consultation.getVulnerableId()));
+            consultation.setQuestionSetTitle(titles.get(consultation.getQuestionSetId()));
+            consultation.setVulnerableNameGrams(SearchGrams.of(consultation.getVulnerableName()));
+            consultation.setQuestionSetTitleGrams(SearchGrams.of(consultation.getQuestionSetTitle()));
+            consultations.add(consultation);
+        }
+        return consultations;
+    }
+
+    private Consultation toConsultation(LlmResultDto dto, String resolvedAccountId) {
+        Consultation consultation = new Consultation();
+
+        consultation.setVulnerableId(dto.getVulnerableId());
+        consultation.setQuestionSetId(dto.getQuestionSetId());
+
+        Integer sessionIndex = dto.getSessionIndex();
+        consultation.setSIndex(sessionIndex != null ? sessionIndex : 0);
+
+        if (dto.getTime() != null) {
+            try {
+                consultation.setTime(LocalDateTime.parse(dto.getTime()));
+            } catch (Exception e) {
+                log.warn("Invalid time format from dto: {} , using now()", dto.getTime());
+                consultation.setTime(LocalDateTime.now());
+            }
+        } else {
+            consultation.setTime(LocalDateTime.now());
+        }
+
+        Long runtime = dto.getRuntime();
+        consultation.setRuntime(runtime != null ? runtime : 0L);
+
+        consultation.setOverallScript(dto.getOverallScript());
+        consultation.setSummary(dto.getSummary());
+
+        Integer result = dto.getResult();
+        consultation.setResult(result != null ? result : 0);
+
+        Integer failCode = dto.getFailCode();
+        consultation.setFailCode(failCode != null ? failCode : 0);
+
+        Integer needHuman = dto.getNeedHuman();
+        consultation.setNeedHuman(needHuman != null ? needHuman : 0);
+
+        consultation.setResultVulnerabilities(dto.getResultVulnerabilities());
+        consultation.setRiskCount(ConsultationReadModel.riskCount(dto.getResultVulnerabilities()));
+        consultation.setDesireCount(ConsultationReadModel.desireCount(dto.getResultVulnerabilities()));
+        consultation.setDeleteVulnerabilities(dto.getDeleteVulnerabilities());
+        consultation.setNewVulnerabilities(dto.getNewVulnerabilities());
+        consultation.setVulnerableApplied(false);
+
+        consultation.setAccountId(dto.getAccountId() != null ? dto.getAccountId() : resolvedAccountId);
+        return consultation;
+    }
+
+    /**
+     * 상담 한 건의 위험/욕구 변경분을 bulk 에 추가합니다.
+     * 한 update 안에서 같은 경로에 $pull 과 $push 를 함께 쓸 수 없어 두 연산으로 나눕니다.
+     * $pull 은 삭제 항목과 함께 추가할 항목도 먼저 빼므로, 같은 결과를 다시 반영해도 중복으로 쌓이지 않습니다.
+     * @return 추가한 연산 수
+     */
+    private int addVulnerabilityUpdates(BulkOperations updates, Consultation consultation) {
+        Query byId = Query.query(Criteria.where("_id").is(consultation.getVulnerableId()));
+        Consultation.VulnerabilityInfo deleted = consultation.getDeleteVulnerabilities();
+        Consultation.VulnerabilityInfo added = consultation.getNewVulnerabilities();
+
+        if (deleted == null && added == null) {
+            Consultation.VulnerabilityInfo rv = consultation.getResultVulnerabilities();
+            if (rv == null) {
+                return 0;
+            }
+            updates.updateOne(byId, new Update()
+                    .set("vulnerabilities.summary", consultation.getSummary())
+                    .set("vulnerabilities.riskList", toRisks(rv.getRiskList()))
+                    .set("vulnerabilities.desireList", toDesires(rv.getDesireList())));
+            return 1;
+        }
+
+        int count = 0;
+        // 추가할 항목도 함께 빼 두어야 재반영 시 중복이 생기지 않음
+        List<String> riskContents = new ArrayList<>();
+        List<String> desireContents = new ArrayList<>();
+        for (Consultation.VulnerabilityInfo info : Arrays.asList(deleted, added)) {
+            if (info != null) {
+                riskContents.addAll(contents(info.getRiskList(), Consultation.RiskDetail::getContent));
+                desireContents.addAll(contents(info.getDesireList(), Consultation.DesireDetail::getContent));
+            }
+        }
+        Update pull = new Update();
+        if (!riskContents.isEmpty()) {
+            pull.pull("vulnerabilities.riskList", new Document("content", new Document("$in", riskContents)));
+        }
+        if (!desireContents.isEmpty()) {
+            pull.pull("vulnerabilities.desireList", new Document("content", new Document("$in", desireContents)));
+        }
+        if (!pull.getUpdateObject().isEmpty()) {
+            updates.updateOne(byId, pull);
+            count++;
+        }
+
+        Update push = new Update();
+        if (consultation.getSummary() != null) {
+            push.set("vulnerabilities.summary", consultation.getSummary());
+        }
+        if (added != null) {
+            List<Vulnerable.Risk> risks = toRisks(added.getRiskList());
+            List<Vulnerable.Desire> desires = toDesires(added.getDesireList());
+            if (!risks.isEmpty()) {
+                push.push("vulnerabilities.riskList").each(risks.toArray());
+            }
+            if (!desires.isEmpty()) {
+                push.push("vulnerabilities.desireList").each(desires.toArray());
+            }
+        }
+        if (!push.getUpdateObject().isEmpty()) {
+            updates.updateOne(byId, push);
+            count++;
+        }
+        return count;
+    }
+
+    private List<Vulnerable.Risk> toRisks(List<Consultation.RiskDetail> details) {
+        return Optional.ofNullable(details).orElse(Collections.emptyList())
+                .stream()
+                .map(r -> Vulnerable.Risk.builder()
+                        .riskType(r.getRiskIndexList())
+                        .content(r.getContent())
+                        .build()
+                )
+                .toList();
+    }
+
+    private List<Vulnerable.Desire> toDesires(List<Consultation.DesireDetail> details) {
+        return Optional.ofNullable(details).orElse(Collections.emptyList())
+                .stream()
+                .map(d -> Vulnerable.Desire.builder()
+                        .desireType(d.getDesireIndexList())
+                        .content(d.getContent())
+                        .build()
+                )
+                .toList();
+    }
+
+    private <T> List<String> contents(List<T> details, Function<T, String> content) {
+        return Optional.ofNullable(details).orElse(Collections.emptyList())
+                .stream()
+                .map(content)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
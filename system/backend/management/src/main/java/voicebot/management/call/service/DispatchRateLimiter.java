@@ -0,0 +1,93 @@
+package voicebot.management.call.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import voicebot.management.config.RateLimitProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis 토큰 버킷 기반 발신 속도 제한.
+ * 같은 Redis 를 보는 모든 관리 서버가 버킷을 공유하며, 전체/질문 세트별 버킷을 한 번에 확인하고 함께 차감합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DispatchRateLimiter {
+
+    // 전체/질문 세트 버킷을 한 스크립트에서 다루므로 Redis Cluster 에서도 한 슬롯에 모이도록 해시 태그 공유
+    private static final String BUCKET_KEY_PREFIX = "{ratelimit}:dispatch:";
+
+    // KEYS: 버킷 목록, ARGV: (분당 속도, 용량) 쌍. 모든 버킷에 토큰이 있을 때만 차감하고 0, 아니면 대기 ms 반환
+    private static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+            "local tokens = {} " +
+            "local wait = 0 " +
+            "for i = 1, #KEYS do " +
+            "  local rate = tonumber(ARGV[i * 2 - 1]) / 60000 " +
+            "  local cap = tonumber(ARGV[i * 2]) " +
+            "  local b = redis.call('HMGET', KEYS[i], 'tokens', 'ts') " +
+            "  local tk = tonumber(b[1]) or cap " +
+            "  local ts = tonumber(b[2]) or now " +
+            "  tk = math.min(cap, tk + math.max(0, now - ts) * rate) " +
+            "  tokens[i] = tk " +
+            "  if tk < 1 then wait = math.max(wait, math.ceil((1 - tk) / rate)) end " +
+            "end " +
+            "if wait > 0 then return wait end " +
+            "for i = 1, #KEYS do " +
+            "  local rate = tonumber(ARGV[i * 2 - 1]) / 60000 " +
+            "  local cap = tonumber(ARGV[i * 2]) " +
+            "  redis.call('HSET', KEYS[i], 'tokens', tostring(tokens[i] - 1), 'ts', tostring(now)) " +
+            "  redis.call('PEXPIRE', KEYS[i], math.ceil(cap / rate) + 1000) " +
+            "end " +
+            "return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RateLimitProperties properties;
+
+    /**
+     * 한 건 발신할 토큰을 가져옵니다.
+     * @param questionSetId 발신할 상담의 질문 세트
+     * @return 0 이면 허용, 양수면 다음 토큰까지 기다려야 하는 시간(ms)
+     */
+    public long tryAcquire(String questionSetId) {
+        if (!properties.isEnabled()) {
+            return 0L;
+        }
+
+        List<String> keys = new ArrayList<>(2);
+        List<String> args = new ArrayList<>(4);
+
+        if (properties.getGlobalPerMinute() > 0) {
+            keys.add(BUCKET_KEY_PREFIX + "global");
+            args.add(String.valueOf(properties.getGlobalPerMinute()));
+            args.add(String.valueOf(Math.max(1, properties.getGlobalBurst())));
+        }
+
+        int questionSetLimit = properties.questionSetLimit(questionSetId);
+        if (questionSetId != null && questionSetLimit > 0) {
+            keys.add(BUCKET_KEY_PREFIX + "qs:" + questionSetId);
+            args.add(String.valueOf(questionSetLimit));
+            // 질문 세트 버킷은 분당 한도의 1/6 (10초 분량) 까지 몰아서 허용
+            args.add(String.valueOf(Math.max(1, questionSetLimit / 6)));
+        }
+
+        if (keys.isEmpty()) {
+            return 0L;
+        }
+
+        Long wait = stringRedisTemplate.execute(TOKEN_BUCKET_SCRIPT, keys, args.toArray());
+        if (wait != null && wait > 0) {
+            log.debug("Dispatch rate limited for QuestionSet {}. Retry in {} ms", questionSetId, wait);
+            return wait;
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,92 @@
+package voicebot.management.call.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 여러 관리 서버가 같은 대기열을 처리할 때 각 노드를 worker 로 등록하고 heartbeat 를 유지합니다.
+ * <p>
+ * dispatch:worker:{workerId} 키는 heartbeat 마다 TTL 이 갱신되며, 키가 사라진 worker 는 죽은 것으로 봅니다.
+ * dispatch:workers ZSET 에는 마지막 heartbeat 시각이 기록됩니다. (상태 조회용)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DispatchWorkerRegistry {
+
+    private static final String WORKER_KEY_PREFIX = "dispatch:worker:";
+    private static final String WORKERS_KEY = "dispatch:workers";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${call.worker.heartbeat-ttl-seconds:15}")
+    private long heartbeatTtlSeconds;
+
+    private String workerId;
+
+    @PostConstruct
+    void init() {
+        workerId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        heartbeat();
+        log.info("Registered dispatch worker {}", workerId);
+    }
+
+    @PreDestroy
+    void deregister() {
+        try {
+            stringRedisTemplate.delete(WORKER_KEY_PREFIX + workerId);
+            stringRedisTemplate.opsForZSet().remove(WORKERS_KEY, workerId);
+        } catch (Exception e) {
+            log.warn("Failed to deregister dispatch worker {}: {}", workerId, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${call.worker.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        stringRedisTemplate.opsForValue().set(WORKER_KEY_PREFIX + workerId, String.valueOf(now),
+                Duration.ofSeconds(heartbeatTtlSeconds));
+        stringRedisTemplate.opsForZSet().add(WORKERS_KEY, workerId, now);
+        // heartbeat 가 끊긴 지 오래된 worker 는 목록에서 정리
+        stringRedisTemplate.opsForZSet().removeRangeByScore(WORKERS_KEY, 0, now - heartbeatTtlSeconds * 1000 * 4);
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public boolean isAlive(String id) {
+        if (id == null) {
+            return false;
+        }
+        if (id.equals(workerId)) {
+            return true;
+        }
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(WORKER_KEY_PREFIX + id));
+    }
+
+    /** 최근 heartbeat TTL 안에 살아 있던 worker 수 */
+    public long activeWorkerCount() {
+        long since = System.currentTimeMillis() - heartbeatTtlSeconds * 1000;
+        Long count = stringRedisTemplate.opsForZSet().count(WORKERS_KEY, since, Double.POSITIVE_INFINITY);
+        return count != null ? count : 0L;
+    }
+
+    private String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
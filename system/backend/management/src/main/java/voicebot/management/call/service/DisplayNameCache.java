@@ -0,0 +1,141 @@
+package voicebot.management.call.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import voicebot.management.question.entity.QuestionSet;
+import voicebot.management.question.repository.QuestionSetRepository;
+import voicebot.management.vulnerable.entity.Vulnerable;
+import voicebot.management.vulnerable.repository.VulnerableRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 대기열 화면과 상담 결과 저장에서 쓰는 취약계층 이름 / 질문 세트 제목 캐시.
+ * 캐시에 없는 ID 만 모아 $in 쿼리 한 번으로 채웁니다.
+ * 이름이 바뀌면 Redis Pub/Sub 으로 모든 관리 서버의 항목을 지우고, 놓친 경우에도 TTL 이 지나면 반영됩니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DisplayNameCache implements MessageListener {
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final String EVICT_CHANNEL = "cache:display-name:evict";
+    private static final String VULNERABLE = "v";
+    private static final String QUESTION_SET = "q";
+
+    private final VulnerableRepository vulnerableRepository;
+    private final QuestionSetRepository questionSetRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${call.queue.name-cache-ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<String, Entry> vulnerableNames = new ConcurrentHashMap<>();
+    private final Map<String, Entry> questionSetTitles = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        listenerContainer.removeMessageListener(this);
+    }
+
+    /** 이름 변경 후 호출: 이 서버는 바로, 다른 서버는 메시지를 받는 대로 항목을 지움 */
+    public void evictVulnerable(String vulnerableId) {
+        evict(VULNERABLE, vulnerableId);
+    }
+
+    public void evictQuestionSet(String questionSetId) {
+        evict(QUESTION_SET, questionSetId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int sep = body.indexOf('|');
+        if (sep < 0) {
+            log.warn("Invalid display name eviction message: {}", body);
+            return;
+        }
+        cacheOf(body.substring(0, sep)).remove(body.substring(sep + 1));
+    }
+
+    public Map<String, String> getVulnerableNames(Collection<String> ids) {
+        return resolve(ids, vulnerableNames, missing ->
+                vulnerableRepository.findNamesByUserIdIn(missing).stream()
+                        .filter(v -> v.getName() != null)
+                        .collect(HashMap::new, (m, v) -> m.put(v.getUserId(), v.getName()), Map::putAll));
+    }
+
+    public Map<String, String> getQuestionSetTitles(Collection<String> ids) {
+        return resolve(ids, questionSetTitles, missing ->
+                questionSetRepository.findTitlesByIdIn(missing).stream()
+                        .filter(q -> q.getTitle() != null)
+                        .collect(HashMap::new, (m, q) -> m.put(q.getId(), q.getTitle()), Map::putAll));
+    }
+
+    private Map<String, String> resolve(Collection<String> ids,
+                                        Map<String, Entry> cache,
+                                        Function<Set<String>, Map<String, String>> loader) {
+        long now = System.currentTimeMillis();
+        Map<String, String> result = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+
+        for (String id : ids) {
+            if (id == null) {
+                continue;
+            }
+            Entry entry = cache.get(id);
+            if (entry != null && entry.expiresAt > now) {
+                result.put(id, entry.value);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, String> loaded = loader.apply(missing);
+            if (cache.size() + loaded.size() > MAX_ENTRIES) {
+                cache.clear();
+            }
+            long expiresAt = now + ttlSeconds * 1000;
+            loaded.forEach((id, value) -> cache.put(id, new Entry(value, expiresAt)));
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    private void evict(String type, String id) {
+        cacheOf(type).remove(id);
+        try {
+            stringRedisTemplate.convertAndSend(EVICT_CHANNEL, type + "|" + id);
+        } catch (Exception e) {
+            // 다른 서버는 TTL 이 지나면 반영되므로 이름 변경 자체는 실패시키지 않음
+            log.warn("Failed to publish display name eviction: {}|{}", type, id, e);
+        }
+    }
+
+    private Map<String, Entry> cacheOf(String type) {
+        return VULNERABLE.equals(type) ? vulnerableNames : questionSetTitles;
+    }
+
+    private record Entry(String value, long expiresAt) {
+    }
+}
@@ -2,8 +2,13 @@ package voicebot.management.call.service;
 
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import voicebot.management.call.dto.ConsultationStatusDto;
+import voicebot.management.call.dto.SseFilterDto;
 
 public interface MonitoringService {
-    SseEmitter subscribe(String adminId);
+    /**
+     * @param lastEventId 재연결 시 브라우저가 보내는 Last-Event-ID (없으면 null), 이후 이벤트를 다시 보냄
+     * @param filter      받을 이벤트 조건 (null 이면 전체)
+     */
+    SseEmitter subscribe(String adminId, String lastEventId, SseFilterDto filter);
     void sendUpdate(ConsultationStatusDto statusDto);
 } 
\ No newline at end of file
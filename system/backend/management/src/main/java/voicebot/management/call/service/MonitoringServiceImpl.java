@@ -1,30 +1,177 @@
 package voicebot.management.call.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import voicebot.management.call.dto.ConsultationStatusDto;
+import voicebot.management.call.dto.SseFilterDto;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 모니터링 화면 SSE 브로드캐스터.
+ * <p>
+ * sendUpdate 는 구독자별 대기열에 넣기만 하고 바로 반환하며, 실제 전송은 fan-out 스레드가 합니다.
+ * 대기열은 vulnerableId 기준으로 합쳐져 (최신 상태만 유지) 구독자당 max-pending 건을 넘지 않고,
+ * 넘치거나 전송이 slow-client-ms 이상 밀린 구독자는 연결을 끊습니다.
+ * <p>
+ * 모든 상태 이벤트는 단조 증가하는 id 를 달고 최근 replay-buffer-size 건이 메모리에 보관되며,
+ * 재연결한 브라우저는 Last-Event-ID 이후 이벤트를 이 버퍼에서 다시 받습니다.
+ * 버퍼 범위를 벗어난 경우에는 resync 이벤트를 보내 화면이 전체 상태를 다시 조회하게 합니다.
+ * <p>
+ * 여러 관리 서버가 떠 있어도 모든 관리자가 같은 이벤트를 받도록, sendUpdate 는 Redis 채널 sse:status 로 발행만 하고
+ * 각 서버는 채널에서 받은 이벤트를 자기에게 연결된 구독자에게 보냅니다.
+ * 이벤트 id 는 발행 스크립트 안에서 INCR 로 발급되므로 모든 서버에서 같은 순서, 같은 id 입니다.
+ * <p>
+ * 구독자는 필터(내 상담만 / 질문 세트 / 상태)를 가질 수 있고, 질문 세트 → 계정 → 전체 순의 구독 인덱스로
+ * 관심 있는 구독자만 골라 보냅니다. 이벤트 JSON 은 처음 보낼 때 한 번만 직렬화합니다.
+ * <p>
+ * 한동안 보낸 것이 없는 연결에는 heartbeat 주석 프레임을 보내고, dead-after-ms 동안 쓰기에 성공하지 못한
+ * 연결은 reaper 가 정리합니다. 서버당 구독자 수는 max-subscribers 로 제한됩니다.
+ */
 @Service
 @Slf4j
-public class MonitoringServiceImpl implements MonitoringService {
+public class MonitoringServiceImpl implements MonitoringService, MessageListener {
+
+    private static final String STATUS_CHANNEL = "sse:status";
+    private static final String EVENT_SEQUENCE_KEY = "sse:event:seq";
+
+    // id 발급과 발행을 원자적으로 처리해 채널 순서 = id 순서
+    private static final RedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>(
+            "local id = redis.call('INCR', KEYS[1]) " +
+            "redis.call('PUBLISH', ARGV[1], id .. '|' .. ARGV[2]) " +
+            "return id",
+            Long.class);
 
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
     private static final Long SSE_EMITTER_TIMEOUT = 60 * 60 * 1000L; // 1시간
+    private static final int DRAIN_BATCH_SIZE = 50;
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    // 구독 인덱스: 질문 세트 필터가 있으면 질문 세트별, 없고 '내 상담만' 이면 계정별, 둘 다 없으면 전체
+    private final Map<String, Set<Subscriber>> byQuestionSet = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byAccount = new ConcurrentHashMap<>();
+    private final Set<Subscriber> unfiltered = ConcurrentHashMap.newKeySet();
+    private final AtomicLong subscriberSequence = new AtomicLong();
+    private final AtomicLong uncoalescedSequence = new AtomicLong();
+    private final ExecutorService fanout;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Counter evictedCounter;
+
+    // replay 버퍼 추가 + 구독자 등록을 같은 잠금 안에서 처리해 순서를 보장
+    private final Object publishLock = new Object();
+    private final ArrayDeque<StatusEvent> replayBuffer = new ArrayDeque<>();
+    private long lastEventId;
+    private long replayFloor; // 이 id 이후의 이벤트는 모두 버퍼에 있음
+
+    @Value("${call.sse.max-pending:256}")
+    private int maxPending;
+
+    @Value("${call.sse.slow-client-ms:10000}")
+    private long slowClientMillis;
+
+    @Value("${call.sse.replay-buffer-size:1024}")
+    private int replayBufferSize;
+
+    @Value("${call.sse.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMillis;
+
+    @Value("${call.sse.dead-after-ms:45000}")
+    private long deadAfterMillis;
+
+    @Value("${call.sse.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    public MonitoringServiceImpl(@Value("${call.sse.fanout-threads:4}") int fanoutThreads,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 ObjectMapper objectMapper,
+                                 RedisMessageListenerContainer listenerContainer,
+                                 MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+
+        Gauge.builder("call.sse.subscribers", subscribers, Map::size)
+                .description("Active SSE subscribers on this node")
+                .register(meterRegistry);
+        Gauge.builder("call.sse.pending", this, MonitoringServiceImpl::pendingCount)
+                .description("Queued SSE events not yet written")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("call.sse.evicted").register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanout = Executors.newFixedThreadPool(fanoutThreads, r -> {
+            Thread t = new Thread(r, "sse-fanout-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    void init() {
+        String seq = stringRedisTemplate.opsForValue().get(EVENT_SEQUENCE_KEY);
+        synchronized (publishLock) {
+            // 기동 전에 발행된 이벤트는 버퍼에 없으므로 그 id 까지는 resync 대상
+            replayFloor = seq != null ? Long.parseLong(seq) : 0L;
+            lastEventId = replayFloor;
+        }
+        listenerContainer.addMessageListener(this, new ChannelTopic(STATUS_CHANNEL));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        listenerContainer.removeMessageListener(this);
+        fanout.shutdownNow();
+        subscribers.values().forEach(s -> s.emitter.complete());
+    }
 
     @Override
-    public SseEmitter subscribe(String adminId) {
-        SseEmitter emitter = new SseEmitter(SSE_EMITTER_TIMEOUT);
-        emitters.add(emitter);
-        log.info("New SSE Emitter subscribed for admin: {}. Total emitters: {}", adminId, emitters.size());
+    public SseEmitter subscribe(String adminId, String lastEventId, SseFilterDto filter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "모니터링 연결 수가 한도를 초과했습니다.");
+        }
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(subscriberSequence.incrementAndGet(), adminId, emitter,
+                filter != null ? filter : new SseFilterDto());
+        log.info("New SSE Emitter subscribed for admin: {} (filter={}). Total emitters: {}",
+                adminId, subscriber.filter, subscribers.size());
 
         emitter.onCompletion(() -> {
-            emitters.remove(emitter);
-            log.info("SSE Emitter completed for admin: {}. Total emitters: {}", adminId, emitters.size());
+            unregister(subscriber);
+            log.info("SSE Emitter completed for admin: {}. Total emitters: {}", adminId, subscribers.size());
         });
         emitter.onTimeout(() -> {
             emitter.complete();
@@ -42,19 +189,353 @@ public class MonitoringServiceImpl implements MonitoringService {
             log.error("Error sending initial SSE event to admin: {}", adminId, e);
         }
 
+        Long resumeFrom = parseEventId(lastEventId);
+        boolean resync;
+        synchronized (publishLock) {
+            // 버퍼보다 오래된 id 이거나 (서버 재시작 등으로) 발급한 적 없는 id 면 전체 재조회 필요
+            resync = resumeFrom != null && (resumeFrom > this.lastEventId || resumeFrom < replayFloor);
+            if (resumeFrom != null && !resync) {
+                long now = System.currentTimeMillis();
+                for (StatusEvent event : replayBuffer) {
+                    if (event.id() > resumeFrom && subscriber.filter.matches(adminId, event.dto())) {
+                        subscriber.offer(event.key(), event, now);
+                    }
+                }
+            }
+            register(subscriber);
+        }
+        log.info("SSE subscriber for admin {} resumed from {} (resync={})", adminId, resumeFrom, resync);
+
+        if (resync) {
+            try {
+                emitter.send(SseEmitter.event().name("resync").data("Missed events are no longer buffered"));
+            } catch (IOException e) {
+                log.error("Error sending resync SSE event to admin: {}", adminId, e);
+            }
+        }
+        if (subscriber.markScheduled()) {
+            fanout.execute(() -> drain(subscriber));
+        }
+
         return emitter;
     }
 
+    // 테스트에서 보낸 이벤트를 기록하는 emitter 로 바꿀 수 있도록 분리
+    SseEmitter createEmitter() {
+        return new SseEmitter(SSE_EMITTER_TIMEOUT);
+    }
+
     @Override
     public void sendUpdate(ConsultationStatusDto statusDto) {
-        log.info("Sending update to {} emitters: {}", emitters.size(), statusDto);
-        for (SseEmitter emitter : emitters) {
+        try {
+            stringRedisTemplate.execute(PUBLISH_SCRIPT, List.of(EVENT_SEQUENCE_KEY),
+                    STATUS_CHANNEL, objectMapper.writeValueAsString(statusDto));
+        } catch (Exception e) {
+            // Redis 장애 시에는 이 서버의 구독자에게만 id 없이 전달
+            log.warn("Failed to publish SSE update, delivering locally only: {}", e.getMessage());
+            deliver(0L, statusDto);
+        }
+    }
+
+    /** sse:status 채널에서 받은 이벤트 ("id|json") */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int sep = body.indexOf('|');
+        try {
+            long id = Long.parseLong(body.substring(0, sep));
+            deliver(id, objectMapper.readValue(body.substring(sep + 1), ConsultationStatusDto.class));
+        } catch (Exception e) {
+            log.error("Invalid SSE status message: {}", body, e);
+        }
+    }
+
+    /** 이 서버에 연결된 구독자 대기열에 넣습니다. id 가 0 이면 replay 버퍼에 남기지 않습니다. */
+    private void deliver(long id, ConsultationStatusDto statusDto) {
+        log.debug("Queueing update {} for {} emitters: {}", id, subscribers.size(), statusDto);
+        String key = statusDto.getVulnerableId() != null
+                ? statusDto.getVulnerableId()
+                : "#" + uncoalescedSequence.incrementAndGet();
+        long now = System.currentTimeMillis();
+
+        List<Subscriber> toSchedule = new ArrayList<>();
+        synchronized (publishLock) {
+            StatusEvent event = new StatusEvent(id, key, statusDto);
+            if (id > 0) {
+                replayBuffer.addLast(event);
+                lastEventId = Math.max(lastEventId, id);
+                while (replayBuffer.size() > replayBufferSize) {
+                    replayFloor = replayBuffer.pollFirst().id();
+                }
+            }
+
+            for (Subscriber subscriber : candidates(statusDto)) {
+                if (!subscriber.filter.matches(subscriber.adminId, statusDto)) {
+                    continue;
+                }
+                if (!subscriber.offer(key, event, now)) {
+                    evict(subscriber, "queue full or stalled");
+                    continue;
+                }
+                if (subscriber.markScheduled()) {
+                    toSchedule.add(subscriber);
+                }
+            }
+        }
+        toSchedule.forEach(subscriber -> fanout.execute(() -> drain(subscriber)));
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            List<StatusEvent> batch = subscriber.poll(DRAIN_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                if (subscriber.takeHeartbeat()) {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                        subscriber.lastSentAt = System.currentTimeMillis();
+                    } catch (Exception e) {
+                        evict(subscriber, "heartbeat failed");
+                        return;
+                    }
+                }
+                // 비운 뒤 그 사이 들어온 항목이 있으면 다시 전송
+                if (subscriber.unmarkScheduled()) {
+                    return;
+                }
+                continue;
+            }
             try {
-                emitter.send(SseEmitter.event().name("statusUpdate").data(statusDto));
-            } catch (IOException e) {
-                log.warn("Failed to send SSE update, assuming client disconnected.", e);
-                // 에러 발생 시 리스트에서 제거하는 로직은 onCompletion 콜백에서 처리됨
+                for (StatusEvent event : batch) {
+                    SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                            .name("statusUpdate")
+                            .data(event.json(objectMapper), MediaType.APPLICATION_JSON);
+                    if (event.id() > 0) {
+                        builder.id(String.valueOf(event.id()));
+                    }
+                    subscriber.emitter.send(builder);
+                }
+                subscriber.lastSentAt = System.currentTimeMillis();
+            } catch (Exception e) {
+                log.warn("Failed to send SSE update to admin {}, assuming client disconnected: {}",
+                        subscriber.adminId, e.getMessage());
+                evict(subscriber, "send failed");
+                return;
+            }
+        }
+    }
+
+    /**
+     * 유휴 연결에 heartbeat 를 예약하고, 오랫동안 쓰기에 성공하지 못한 연결은 정리합니다.
+     * 프록시 뒤에서 반쯤 끊긴 연결이 서블릿 자원을 계속 잡고 있지 않도록 합니다.
+     */
+    @Scheduled(fixedDelayString = "${call.sse.heartbeat-interval-ms:15000}")
+    public void heartbeatAndReap() {
+        long now = System.currentTimeMillis();
+        int reaped = 0;
+        for (Subscriber subscriber : subscribers.values()) {
+            long idle = now - subscriber.lastSentAt;
+            if (idle > deadAfterMillis) {
+                evict(subscriber, "no successful write for " + idle + "ms");
+                reaped++;
+                continue;
+            }
+            if (idle >= heartbeatIntervalMillis) {
+                subscriber.requestHeartbeat();
+                if (subscriber.markScheduled()) {
+                    fanout.execute(() -> drain(subscriber));
+                }
+            }
+        }
+        if (reaped > 0) {
+            log.warn("Reaped {} dead SSE emitters. Active: {}", reaped, subscribers.size());
+        }
+    }
+
+    private double pendingCount() {
+        return subscribers.values().stream().mapToInt(Subscriber::pendingSize).sum();
+    }
+
+    private void register(Subscriber subscriber) {
+        subscribers.put(subscriber.id, subscriber);
+        SseFilterDto filter = subscriber.filter;
+        if (filter.getQuestionSetIds() != null && !filter.getQuestionSetIds().isEmpty()) {
+            filter.getQuestionSetIds().forEach(qsId ->
+                    byQuestionSet.computeIfAbsent(qsId, k -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        } else if (filter.isMine()) {
+            byAccount.computeIfAbsent(subscriber.adminId, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        } else {
+            unfiltered.add(subscriber);
+        }
+    }
+
+    /** @return 이미 제거된 구독자면 false */
+    private boolean unregister(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.id) == null) {
+            return false;
+        }
+        unfiltered.remove(subscriber);
+        removeFromIndex(byAccount, subscriber.adminId, subscriber);
+        if (subscriber.filter.getQuestionSetIds() != null) {
+            subscriber.filter.getQuestionSetIds().forEach(qsId -> removeFromIndex(byQuestionSet, qsId, subscriber));
+        }
+        return true;
+    }
+
+    private void removeFromIndex(Map<String, Set<Subscriber>> index, String key, Subscriber subscriber) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /** 이벤트를 받을 수 있는 구독자 후보 (인덱스 버킷은 서로 겹치지 않음) */
+    private List<Subscriber> candidates(ConsultationStatusDto dto) {
+        List<Subscriber> result = new ArrayList<>(unfiltered);
+        if (dto.getQuestionSetId() != null) {
+            result.addAll(byQuestionSet.getOrDefault(dto.getQuestionSetId(), Set.of()));
+        }
+        if (dto.getAccountId() != null) {
+            result.addAll(byAccount.getOrDefault(dto.getAccountId(), Set.of()));
+        }
+        return result;
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        if (unregister(subscriber)) {
+            evictedCounter.increment();
+            log.warn("Evicting SSE subscriber for admin {} ({})", subscriber.adminId, reason);
+            try {
+                subscriber.emitter.complete();
+            } catch (Exception ignored) {
+                // 이미 끊긴 연결
+            }
+        }
+    }
+
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalid Last-Event-ID: {}", lastEventId);
+            return null;
+        }
+    }
+
+    /** 상태 이벤트. JSON 은 처음 보낼 때 한 번만 만들어 모든 구독자가 공유합니다. */
+    private static final class StatusEvent {
+        private final long id;
+        private final String key;
+        private final ConsultationStatusDto dto;
+        private volatile String json;
+
+        private StatusEvent(long id, String key, ConsultationStatusDto dto) {
+            this.id = id;
+            this.key = key;
+            this.dto = dto;
+        }
+
+        long id() {
+            return id;
+        }
+
+        String key() {
+            return key;
+        }
+
+        ConsultationStatusDto dto() {
+            return dto;
+        }
+
+        String json(ObjectMapper objectMapper) throws JsonProcessingException {
+            String value = json;
+            if (value == null) {
+                value = objectMapper.writeValueAsString(dto);
+                json = value;
+            }
+            return value;
+        }
+    }
+
+    /** 구독자 하나의 합쳐진(coalesced) 전송 대기열 */
+    private final class Subscriber {
+        private final long id;
+        private final String adminId;
+        private final SseEmitter emitter;
+        private final SseFilterDto filter;
+        private final LinkedHashMap<String, StatusEvent> pending = new LinkedHashMap<>();
+        private boolean scheduled;
+        private boolean heartbeatDue;
+        private long oldestPendingAt;
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private Subscriber(long id, String adminId, SseEmitter emitter, SseFilterDto filter) {
+            this.id = id;
+            this.adminId = adminId;
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+
+        /** @return 대기열이 넘쳤거나 전송이 너무 밀렸으면 false */
+        synchronized boolean offer(String key, StatusEvent event, long now) {
+            if (pending.isEmpty()) {
+                oldestPendingAt = now;
+            } else if (now - oldestPendingAt > slowClientMillis && now - lastSentAt > slowClientMillis) {
+                return false;
+            }
+            // 합칠 때도 맨 뒤로 옮겨 전송 순서가 항상 id 오름차순이 되게 함 (재연결 시 Last-Event-ID 기준 누락 방지)
+            boolean coalesced = pending.remove(key) != null;
+            pending.put(key, event);
+            return coalesced || pending.size() <= maxPending;
+        }
+
+        synchronized List<StatusEvent> poll(int max) {
+            List<StatusEvent> batch = new ArrayList<>(Math.min(max, pending.size()));
+            Iterator<StatusEvent> it = pending.values().iterator();
+            while (it.hasNext() && batch.size() < max) {
+                batch.add(it.next());
+                it.remove();
+            }
+            oldestPendingAt = System.currentTimeMillis();
+            return batch;
+        }
+
+        /** @return 이번 호출로 전송 작업을 예약해야 하면 true */
+        synchronized boolean markScheduled() {
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        synchronized void requestHeartbeat() {
+            heartbeatDue = true;
+        }
+
+        /** @return 보내야 할 heartbeat 가 있었으면 true */
+        synchronized boolean takeHeartbeat() {
+            boolean due = heartbeatDue;
+            heartbeatDue = false;
+            return due;
+        }
+
+        synchronized int pendingSize() {
+            return pending.size();
+        }
+
+        /** @return 대기열이 비어 전송 작업을 끝내도 되면 true */
+        synchronized boolean unmarkScheduled() {
+            if (!pending.isEmpty() || heartbeatDue) {
+                return false;
             }
+            scheduled = false;
+            return true;
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+package voicebot.management.call.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import voicebot.management.question.entity.QuestionSet;
+import voicebot.management.vulnerable.entity.Vulnerable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 오케스트레이터 /api/receive 요청 본문을 만듭니다.
+ * <p>
+ * 배치 안의 모든 상담은 같은 질문 세트를 쓰므로 question_list 는 질문 세트별로 한 번만 직렬화해
+ * UTF-8 바이트로 캐시하고, 요청마다 대상자 필드만 새로 써서 이어 붙입니다.
+ * 질문 세트를 다시 대기열에 올리거나 수정/삭제하면(evict) 또는 TTL 이 지나면 새로 컴파일합니다.
+ * evict 는 Redis Pub/Sub 으로 다른 관리 서버의 컴파일 결과도 지웁니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrchestratorPayloadBuilder implements MessageListener {
+
+    // Redis 질문 세트 캐시(questions:) 와 같은 수명
+    private static final long FRAGMENT_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final String EVICT_CHANNEL = "cache:question-list:evict";
+
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Map<String, CompiledFragment> questionListFragments = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        listenerContainer.removeMessageListener(this);
+    }
+
+    public byte[] build(Vulnerable vulnerable, QuestionSet questionSet, int sessionIndex) {
+        SerializedString questionList = questionListFragment(questionSet);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(questionList.asUnquotedUTF8().length + 512);
+        try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringField("vulnerable_id", vulnerable.getUserId()); //취약문제 index
+            gen.writeNumberField("s_index", sessionIndex);  // 회차 정보 전달
+            gen.writeStringField("q_id", questionSet.getId());
+            gen.writeStringField("name", vulnerable.getName());
+            gen.writeStringField("phone", vulnerable.getPhoneNumber());
+            gen.writeStringField("gender", vulnerable.getGender());
+            gen.writeStringField("birth_date",
+                    vulnerable.getBirthDate() != null ? vulnerable.getBirthDate().toString() : null);
+
+            gen.writeObjectFieldStart("address");
+            Vulnerable.Address address = vulnerable.getAddress();
+            if (address != null) {
+                gen.writeStringField("state", address.getState());
+                gen.writeStringField("city", address.getCity());
+                gen.writeStringField("address1", address.getAddress1());
+                gen.writeStringField("address2", address.getAddress2());
+            }
+            gen.writeEndObject();
+
+            // 미리 컴파일해 둔 질문 목록을 그대로 이어 붙임
+            gen.writeFieldName("question_list");
+            gen.writeRawValue(questionList);
+
+            writeVulnerabilities(gen, vulnerable.getVulnerabilities());
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build orchestrator request for " + vulnerable.getUserId(), e);
+        }
+        return out.toByteArray();
+    }
+
+    /** 질문 세트가 새로 적재되거나 바뀌었을 때 모든 서버의 이전 컴파일 결과를 버립니다. */
+    public void evict(String questionSetId) {
+        questionListFragments.remove(questionSetId);
+        try {
+            stringRedisTemplate.convertAndSend(EVICT_CHANNEL, questionSetId);
+        } catch (Exception e) {
+            // 다른 서버는 TTL 이 지나면 새로 컴파일되므로 호출한 작업은 실패시키지 않음
+            log.warn("Failed to publish question list eviction: {}", questionSetId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        questionListFragments.remove(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private SerializedString questionListFragment(QuestionSet questionSet) {
+        long now = System.currentTimeMillis();
+        CompiledFragment cached = questionListFragments.get(questionSet.getId());
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.json();
+        }
+
+        SerializedString compiled;
+        try {
+            compiled = new SerializedString(objectMapper.writeValueAsString(toQuestionList(questionSet)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to compile question list for " + questionSet.getId(), e);
+        }
+        compiled.asUnquotedUTF8(); // 바이트 인코딩도 미리 계산
+        questionListFragments.put(questionSet.getId(), new CompiledFragment(compiled, now + FRAGMENT_TTL_MILLIS));
+        return compiled;
+    }
+
+    private void writeVulnerabilities(JsonGenerator gen, Vulnerable.Vulnerability vulnInfo) throws IOException {
+        gen.writeObjectFieldStart("vulnerabilities");
+
+        gen.writeArrayFieldStart("risk_list");
+        if (vulnInfo != null && vulnInfo.getRiskList() != null) {
+            for (Vulnerable.Risk r : vulnInfo.getRiskList()) {
+                gen.writeStartObject();
+                gen.writeObjectField("risk_index_list",
+                        Optional.ofNullable(r.getRiskType()).orElse(Collections.emptyList()));
+                gen.writeStringField("content", r.getContent());
+                gen.writeEndObject();
+            }
+        }
+        gen.writeEndArray();
+
+        gen.writeArrayFieldStart("desire_list");
+        if (vulnInfo != null && vulnInfo.getDesireList() != null) {
+            for (Vulnerable.Desire d : vulnInfo.getDesireList()) {
+                gen.writeStartObject();
+                gen.writeObjectField("desire_type",
+                        Optional.ofNullable(d.getDesireType()).orElse(Collections.emptyList()));
+                gen.writeStringField("content", d.getContent());
+                gen.writeEndObject();
+            }
+        }
+        gen.writeEndArray();
+
+        gen.writeEndObject();
+    }
+
+    private List<Map<String, Object>> toQuestionList(QuestionSet questionSet) {
+        return questionSet.getFlow().stream()
+                .map(q -> {
+                    Map<String, Object> qMap = new HashMap<>();
+                    qMap.put("text", q.getText());
+
+                    List<Map<String, Object>> expectedAnswers =
+                            q.getExpectedResponse().stream()
+                                    .map(exp -> {
+                                        Map<String, Object> expMap = new HashMap<>();
+                                        expMap.put("text", exp.getText());
+
+                                        List<Map<String, Object>> responseTypes =
+                                                exp.getResponseTypeList().stream()
+                                                        .map(rt -> {
+                                                            Map<String, Object> rtMap = new HashMap<>();
+                                                            rtMap.put("response_type", rt.getResponseType());
+                                                            rtMap.put("response_index", rt.getResponseIndex());
+                                                            return rtMap;
+                                                        })
+                                                        .toList();
+
+                                        expMap.put("response_type_list", responseTypes);
+                                        return expMap;
+                                    })
+                                    .toList();
+
+                    qMap.put("expected_answer", expectedAnswers);
+                    return qMap;
+                })
+                .toList();
+    }
+
+    private record CompiledFragment(SerializedString json, long expiresAt) {
+    }
+}
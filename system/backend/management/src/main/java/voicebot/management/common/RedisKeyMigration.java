@@ -0,0 +1,52 @@
+package voicebot.management.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 키 이름을 바꾼 뒤 이전 이름으로 남아 있는 Redis 키를 새 이름으로 옮깁니다. (기동 시 1회)
+ * RENAMENX 로 옮기므로 TTL 은 유지되고, 새 이름의 키가 이미 있으면 덮어쓰지 않고 경고만 남깁니다.
+ * 이전 버전 서버가 같은 키를 쓰는 동안에는 옮긴 뒤 다시 생길 수 있으므로 디스패처를 멈추고 배포합니다.
+ */
+@Slf4j
+public final class RedisKeyMigration {
+
+    private static final int SCAN_COUNT = 500;
+
+    private RedisKeyMigration() {
+    }
+
+    /**
+     * legacyPrefix 로 시작하는 키를 newPrefix + (나머지) 로 옮깁니다.
+     * @return 옮긴 키 수
+     */
+    public static int renamePrefix(StringRedisTemplate redis, String legacyPrefix, String newPrefix) {
+        int renamed = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(legacyPrefix + "*").count(SCAN_COUNT).build();
+        try (Cursor<String> keys = redis.scan(options)) {
+            while (keys.hasNext()) {
+                String legacy = keys.next();
+                String target = newPrefix + legacy.substring(legacyPrefix.length());
+                try {
+                    if (Boolean.TRUE.equals(redis.renameIfAbsent(legacy, target))) {
+                        renamed++;
+                    } else {
+                        log.warn("[REDIS][MIGRATION] {} 가 이미 있어 {} 를 옮기지 않았습니다.", target, legacy);
+                    }
+                } catch (Exception e) {
+                    // 다른 서버가 먼저 옮겼거나 만료된 키
+                    log.debug("[REDIS][MIGRATION] {} 이동 생략: {}", legacy, e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            // Redis Cluster 는 여러 노드에 걸친 SCAN 을 지원하지 않음 (Cluster 로 옮기기 전 단일 노드에서 수행)
+            log.warn("[REDIS][MIGRATION] {}* 키 조회 실패, 이동 생략", legacyPrefix, e);
+        }
+        if (renamed > 0) {
+            log.info("[REDIS][MIGRATION] {}* → {}* 키 {}건 이동", legacyPrefix, newPrefix, renamed);
+        }
+        return renamed;
+    }
+}
@@ -0,0 +1,56 @@
+package voicebot.management.common;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 이름/제목 부분 검색용 n-gram 토큰.
+ * 한글 이름은 형태소 분석이 맞지 않아 글자 단위 unigram + bigram 을 저장하고,
+ * 검색어의 gram 을 모두 가진 문서($all)만 후보로 골라 multikey 인덱스로 조회합니다.
+ */
+public final class SearchGrams {
+
+    private SearchGrams() {
+    }
+
+    /** 저장용: 입력 문자열들의 unigram + bigram (중복 제거) */
+    public static List<String> of(String... texts) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String text : texts) {
+            String normalized = normalize(text);
+            for (int i = 0; i < normalized.length(); i++) {
+                grams.add(normalized.substring(i, i + 1));
+                if (i + 1 < normalized.length()) {
+                    grams.add(normalized.substring(i, i + 2));
+                }
+            }
+        }
+        return new ArrayList<>(grams);
+    }
+
+    /** 조회용: 한 글자면 unigram, 그 외에는 검색어의 bigram 전체 */
+    public static List<String> forQuery(String term) {
+        String normalized = normalize(term);
+        if (normalized.length() <= 1) {
+            return normalized.isEmpty() ? List.of() : List.of(normalized);
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + 2));
+        }
+        return new ArrayList<>(grams);
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", "");
+    }
+}
@@ -0,0 +1,165 @@
+package voicebot.management.config;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.stereotype.Component;
+import voicebot.management.history.service.HistoryServiceImpl;
+
+import java.util.*;
+
+/**
+ * 주요 조회 경로의 쿼리 모양을 explain(queryPlanner) 으로 점검합니다.
+ * 승리 플랜에 COLLSCAN 이 있으면 인덱스를 타지 않는 쿼리로 표시하고,
+ * SORT 단계(aggregation 이면 $sort 단계 포함)가 있으면 인덱스 순서가 아닌 메모리 정렬로 표시합니다.
+ * aggregation 으로 조회하는 경로는 서비스가 만드는 파이프라인을 그대로 explain 합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexCoverageReporter {
+
+    private static final Date SAMPLE_TIME = new Date(0);
+    private static final ObjectId SAMPLE_ID = new ObjectId("000000000000000000000000");
+    private static final List<String> SAMPLE_GRAMS = List.of("ab");
+
+    private final MongoTemplate mongoTemplate;
+    private final HistoryServiceImpl historyService;
+
+    public List<ProbeResult> report() {
+        List<ProbeResult> results = new ArrayList<>();
+        for (Probe probe : probes()) {
+            results.add(explain(probe));
+        }
+        return results;
+    }
+
+    // 서비스/리포지토리의 실제 조회 조건과 같은 모양 (값은 의미 없음)
+    private List<Probe> probes() {
+        Document timeDesc = new Document("time", -1).append("_id", -1);
+        Pageable historyPage = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "time"));
+        return List.of(
+                Probe.aggregate("history.page", "consultation",
+                        historyService.callHistoryAggregation(null, null, historyPage)),
+                Probe.aggregate("history.s_index", "consultation",
+                        historyService.callHistoryAggregation(null, 1, historyPage)),
+                Probe.aggregate("history.search", "consultation",
+                        historyService.callHistoryAggregation("ab", null, historyPage)),
+                Probe.find("history.cursor", "consultation", new Document("$or", List.of(
+                        new Document("time", new Document("$lt", SAMPLE_TIME)),
+                        new Document("time", SAMPLE_TIME).append("_id", new Document("$lt", SAMPLE_ID)))), timeDesc),
+                Probe.find("dashboard.today", "consultation",
+                        new Document("time", new Document("$gt", SAMPLE_TIME).append("$lt", new Date())), null),
+                Probe.find("vulnerable.timeline", "consultation", new Document("v_id", ""), new Document("time", -1)),
+                Probe.find("account.timeline", "consultation", new Document("account_id", ""), new Document("time", -1)),
+                Probe.find("question_set.consultations", "consultation", new Document("q_id", ""), null),
+                Probe.find("vulnerable.search", "vulnerable",
+                        new Document("searchGrams", new Document("$all", SAMPLE_GRAMS)).append("name", new Document("$regex", "ab")), null),
+                Probe.find("vulnerable.by_ids", "vulnerable", new Document("_id", new Document("$in", List.of(""))), null),
+                Probe.find("question_set.by_ids", "question_sets", new Document("_id", new Document("$in", List.of(""))), null)
+        );
+    }
+
+    private ProbeResult explain(Probe probe) {
+        try {
+            Document explained = mongoTemplate.getDb().runCommand(
+                    new Document("explain", probe.command()).append("verbosity", "queryPlanner"));
+            List<String> stages = new ArrayList<>();
+            collectWinningPlans(explained, stages);
+            collectPipelineStages(explained, stages);
+            return ProbeResult.builder()
+                    .name(probe.name())
+                    .collection(probe.collection())
+                    .stages(stages)
+                    .collectionScan(stages.contains("COLLSCAN"))
+                    .inMemorySort(stages.contains("SORT") || stages.contains("$sort"))
+                    .build();
+        } catch (Exception e) {
+            log.warn("[MONGO][INDEX] explain 실패: {}", probe.name(), e);
+            return ProbeResult.builder()
+                    .name(probe.name())
+                    .collection(probe.collection())
+                    .stages(List.of())
+                    .error(e.getMessage())
+                    .build();
+        }
+    }
+
+    // find 는 최상위, aggregation 은 $cursor 아래(또는 샤드별)에 queryPlanner 가 있으므로 전체에서 찾음
+    private void collectWinningPlans(Object node, List<String> stages) {
+        if (node instanceof Document doc) {
+            Object planner = doc.get("queryPlanner");
+            if (planner instanceof Document plannerDoc) {
+                collectStages(plannerDoc.get("winningPlan"), stages);
+            }
+            doc.forEach((key, value) -> {
+                if (!"queryPlanner".equals(key)) {
+                    collectWinningPlans(value, stages);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(v -> collectWinningPlans(v, stages));
+        }
+    }
+
+    // 쿼리 계층으로 내려가지 못한 aggregation 단계 ($sort, $facet 등) 이름
+    private void collectPipelineStages(Document explained, List<String> stages) {
+        Object pipeline = explained.get("stages");
+        if (pipeline instanceof List<?> list) {
+            for (Object stage : list) {
+                if (stage instanceof Document doc && !doc.isEmpty()) {
+                    stages.add(doc.keySet().iterator().next());
+                }
+            }
+        }
+    }
+
+    // 버전에 따라 inputStage / inputStages / queryPlan 아래에 단계가 있으므로 전체를 훑음
+    private void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document doc) {
+            Object stage = doc.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            doc.values().forEach(v -> collectStages(v, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(v -> collectStages(v, stages));
+        }
+    }
+
+    private record Probe(String name, String collection, Document command) {
+
+        static Probe find(String name, String collection, Document filter, Document sort) {
+            Document find = new Document("find", collection).append("filter", filter);
+            if (sort != null) {
+                find.append("sort", sort);
+            }
+            return new Probe(name, collection, find);
+        }
+
+        static Probe aggregate(String name, String collection, Aggregation aggregation) {
+            return new Probe(name, collection, new Document("aggregate", collection)
+                    .append("pipeline", aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT))
+                    .append("cursor", new Document()));
+        }
+    }
+
+    @Data
+    @Builder
+    public static class ProbeResult {
+        private String name;
+        private String collection;
+        private List<String> stages;
+        private boolean collectionScan;
+        private boolean inMemorySort;
+        private String error;
+    }
+}
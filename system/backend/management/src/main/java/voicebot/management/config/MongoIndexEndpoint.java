@@ -0,0 +1,29 @@
+package voicebot.management.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET /actuator/mongoindexes : 컬렉션별 인덱스 상태와 쿼리별 인덱스 사용 여부
+ */
+@Component
+@Endpoint(id = "mongoindexes")
+@RequiredArgsConstructor
+public class MongoIndexEndpoint {
+
+    private final MongoIndexManager indexManager;
+    private final MongoIndexCoverageReporter coverageReporter;
+
+    @ReadOperation
+    public Map<String, Object> indexes() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("collections", indexManager.inspect());
+        body.put("queries", coverageReporter.report());
+        return body;
+    }
+}
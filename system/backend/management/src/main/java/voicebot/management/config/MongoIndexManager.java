@@ -0,0 +1,255 @@
+package voicebot.management.config;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+import voicebot.management.history.entity.Consultation;
+import voicebot.management.question.entity.QuestionSet;
+import voicebot.management.vulnerable.entity.Vulnerable;
+
+import java.util.*;
+
+/**
+ * Mongo 인덱스 관리. 엔티티의 @Indexed / @CompoundIndex 선언을 기준으로
+ * 기동 시 인덱스를 생성하고, 실제 컬렉션의 인덱스와 비교해 누락/미선언 인덱스를 기록합니다.
+ * (spring.data.mongodb.auto-index-creation 은 끄고 이 클래스가 담당)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexManager {
+
+    private static final List<Class<?>> MANAGED_ENTITIES =
+            List.of(Consultation.class, Vulnerable.class, QuestionSet.class);
+
+    private static final String ID_INDEX = "_id_";
+    private static final String DUPLICATES_SUFFIX = "_duplicates";
+    private static final int DUPLICATE_KEY_CODE = 11000;
+    private static final int DEDUP_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoIndexCoverageReporter coverageReporter;
+
+    @Value("${mongo.index.drop-unmanaged:false}")
+    private boolean dropUnmanaged;
+
+    @Value("${mongo.index.report-on-startup:true}")
+    private boolean reportOnStartup;
+
+    @Value("${mongo.index.dedup-unique:true}")
+    private boolean dedupUnique;
+
+    // 백필 등 다른 기동 작업보다 먼저 인덱스를 만든다
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<CollectionIndexState> states = ensureIndexes();
+        states.stream()
+                .filter(s -> !s.getMissing().isEmpty())
+                .forEach(s -> log.error("[MONGO][INDEX] {} 인덱스 누락: {}", s.getCollection(), s.getMissing()));
+        if (reportOnStartup) {
+            coverageReporter.report().stream()
+                    .filter(MongoIndexCoverageReporter.ProbeResult::isCollectionScan)
+                    .forEach(r -> log.warn("[MONGO][INDEX] 인덱스를 타지 않는 쿼리: {} ({}) stages={}",
+                            r.getName(), r.getCollection(), r.getStages()));
+        }
+    }
+
+    /** 선언된 인덱스를 생성(이미 있으면 무시)한 뒤 컬렉션별 상태를 반환 */
+    public List<CollectionIndexState> ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        List<CollectionIndexState> states = new ArrayList<>();
+        for (Class<?> entity : MANAGED_ENTITIES) {
+            IndexOperations ops = mongoTemplate.indexOps(entity);
+            Set<String> declared = new TreeSet<>();
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity)) {
+                Object name = definition.getIndexOptions().get("name");
+                if (name != null) {
+                    declared.add(name.toString());
+                }
+                createIndex(entity, ops, definition, name);
+            }
+            states.add(verify(entity, ops, declared));
+        }
+        return states;
+    }
+
+    /**
+     * 일반 인덱스는 실패해도 기록만 하고 계속 진행합니다.
+     * unique 인덱스는 중복 문서 때문에 실패하면 중복을 {collection}_duplicates 로 옮긴 뒤 다시 만들고,
+     * 그래도 만들지 못하면 기동을 중단합니다. (unique 를 전제로 한 중복 제거가 조용히 깨지지 않도록)
+     */
+    private void createIndex(Class<?> entity, IndexOperations ops, IndexDefinition definition, Object name) {
+        String collection = mongoTemplate.getCollectionName(entity);
+        boolean unique = Boolean.TRUE.equals(definition.getIndexOptions().get("unique"));
+        try {
+            ops.createIndex(definition);
+            return;
+        } catch (Exception e) {
+            if (!unique) {
+                log.error("[MONGO][INDEX] 인덱스 생성 실패: {} {}", collection, name, e);
+                return;
+            }
+            if (!dedupUnique || !isDuplicateKey(e)) {
+                throw new IllegalStateException("unique 인덱스 생성 실패: " + collection + "." + name, e);
+            }
+        }
+
+        long moved = moveDuplicates(collection, definition.getIndexKeys());
+        log.warn("[MONGO][INDEX] {}.{} 중복 문서 {}건을 {} 로 이동 후 재생성", collection, name, moved,
+                collection + DUPLICATES_SUFFIX);
+        try {
+            ops.createIndex(definition);
+        } catch (Exception e) {
+            throw new IllegalStateException("unique 인덱스 생성 실패: " + collection + "." + name, e);
+        }
+    }
+
+    /**
+     * 인덱스 키가 같은 문서 중 _id 가 가장 작은(먼저 저장된) 문서만 남기고 나머지를 백업 컬렉션으로 옮깁니다.
+     * 백업은 upsert 라 도중에 중단된 뒤 다시 실행해도 안전합니다.
+     */
+    private long moveDuplicates(String collection, Document keys) {
+        Document groupId = new Document();
+        keys.keySet().forEach(key -> groupId.append(key.replace('.', '_'), "$" + key));
+        List<Document> pipeline = List.of(
+                new Document("$sort", new Document("_id", 1)),
+                new Document("$group", new Document("_id", groupId)
+                        .append("ids", new Document("$push", "$_id"))
+                        .append("count", new Document("$sum", 1))),
+                new Document("$match", new Document("count", new Document("$gt", 1))));
+
+        MongoCollection<Document> source = mongoTemplate.getCollection(collection);
+        MongoCollection<Document> backup = mongoTemplate.getCollection(collection + DUPLICATES_SUFFIX);
+        List<Object> pending = new ArrayList<>();
+        long moved = 0;
+        for (Document group : source.aggregate(pipeline).allowDiskUse(true)) {
+            List<?> ids = group.getList("ids", Object.class);
+            pending.addAll(ids.subList(1, ids.size()));
+            if (pending.size() >= DEDUP_BATCH_SIZE) {
+                moved += moveBatch(source, backup, pending);
+                pending.clear();
+            }
+        }
+        if (!pending.isEmpty()) {
+            moved += moveBatch(source, backup, pending);
+        }
+        return moved;
+    }
+
+    private long moveBatch(MongoCollection<Document> source, MongoCollection<Document> backup, List<Object> ids) {
+        List<ReplaceOneModel<Document>> copies = new ArrayList<>();
+        for (Document doc : source.find(Filters.in("_id", ids))) {
+            copies.add(new ReplaceOneModel<>(Filters.eq("_id", doc.get("_id")), doc,
+                    new ReplaceOptions().upsert(true)));
+        }
+        if (!copies.isEmpty()) {
+            backup.bulkWrite(copies);
+        }
+        return source.deleteMany(Filters.in("_id", ids)).getDeletedCount();
+    }
+
+    private boolean isDuplicateKey(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DuplicateKeyException
+                    || (t instanceof MongoException me && me.getCode() == DUPLICATE_KEY_CODE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 생성 없이 선언과 실제 인덱스만 비교 */
+    public List<CollectionIndexState> inspect() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        List<CollectionIndexState> states = new ArrayList<>();
+        for (Class<?> entity : MANAGED_ENTITIES) {
+            Set<String> declared = new TreeSet<>();
+            resolver.resolveIndexFor(entity).forEach(d -> {
+                Object name = d.getIndexOptions().get("name");
+                if (name != null) {
+                    declared.add(name.toString());
+                }
+            });
+            states.add(CollectionIndexState.of(mongoTemplate.getCollectionName(entity), declared,
+                    existingNames(mongoTemplate.indexOps(entity))));
+        }
+        return states;
+    }
+
+    private CollectionIndexState verify(Class<?> entity, IndexOperations ops, Set<String> declared) {
+        String collection = mongoTemplate.getCollectionName(entity);
+        Set<String> existing = existingNames(ops);
+
+        CollectionIndexState state = CollectionIndexState.of(collection, declared, existing);
+        for (String name : state.getUnmanaged()) {
+            if (dropUnmanaged) {
+                ops.dropIndex(name);
+                log.info("[MONGO][INDEX] 미선언 인덱스 삭제: {}.{}", collection, name);
+            } else {
+                log.warn("[MONGO][INDEX] 엔티티에 선언되지 않은 인덱스: {}.{}", collection, name);
+            }
+        }
+        if (dropUnmanaged && !state.getUnmanaged().isEmpty()) {
+            state = CollectionIndexState.of(collection, declared, existingNames(ops));
+        }
+        log.info("[MONGO][INDEX] {} 인덱스 확인: {}", collection, state.getExisting());
+        return state;
+    }
+
+    private Set<String> existingNames(IndexOperations ops) {
+        Set<String> names = new TreeSet<>();
+        for (IndexInfo info : ops.getIndexInfo()) {
+            names.add(info.getName());
+        }
+        return names;
+    }
+
+    @Data
+    @Builder
+    public static class CollectionIndexState {
+        private String collection;
+        private Set<String> declared;
+        private Set<String> existing;
+        private Set<String> missing;    // 선언됐지만 컬렉션에 없음
+        private Set<String> unmanaged;  // 컬렉션에 있지만 선언되지 않음 (_id_ 제외)
+
+        static CollectionIndexState of(String collection, Set<String> declared, Set<String> existing) {
+            Set<String> missing = new TreeSet<>(declared);
+            missing.removeAll(existing);
+            Set<String> unmanaged = new TreeSet<>(existing);
+            unmanaged.removeAll(declared);
+            unmanaged.remove(ID_INDEX);
+            return CollectionIndexState.builder()
+                    .collection(collection)
+                    .declared(declared)
+                    .existing(existing)
+                    .missing(missing)
+                    .unmanaged(unmanaged)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package voicebot.management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 오케스트레이터 발신 속도 제한 설정 (call.rate-limit.*)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "call.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // 모든 관리 서버를 합친 분당 발신 수
+    private int globalPerMinute = 60;
+    private int globalBurst = 10;
+
+    // 질문 세트별 기본 분당 발신 수 (0 이하 = 제한 없음)
+    private int questionSetPerMinute = 0;
+
+    // 질문 세트 ID 별 개별 분당 발신 수
+    private Map<String, Integer> questionSets = new HashMap<>();
+
+    public int questionSetLimit(String questionSetId) {
+        return questionSets.getOrDefault(questionSetId, questionSetPerMinute);
+    }
+}
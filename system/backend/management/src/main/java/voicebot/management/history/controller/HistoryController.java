@@ -8,6 +8,7 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import voicebot.management.history.dto.CallHistoryCursorPageDto;
 import voicebot.management.history.dto.CallHistoryDto;
 import voicebot.management.history.entity.Consultation;
 import voicebot.management.history.service.HistoryService;
@@ -34,6 +35,16 @@ public class HistoryController {
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping("/history/cursor")
+    public ResponseEntity<CallHistoryCursorPageDto> getCallHistoryByCursor(
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) Integer sIndex,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(historyService.getCallHistoryByCursor(searchTerm, sIndex, cursor, size));
+    }
+
     @GetMapping("/history/{id}")
     public ResponseEntity<Consultation> getCallHistoryDetail(@PathVariable String id) {
         Optional<Consultation> opt = historyService.getCallHistoryDetail(id);
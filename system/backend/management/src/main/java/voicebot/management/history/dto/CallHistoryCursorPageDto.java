@@ -0,0 +1,14 @@
+package voicebot.management.history.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CallHistoryCursorPageDto {
+    private List<CallHistoryDto> items;
+    private String nextCursor; // 다음 페이지 요청 시 그대로 전달, 마지막 페이지면 null
+    private boolean hasNext;
+}
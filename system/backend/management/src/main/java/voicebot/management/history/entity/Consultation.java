@@ -1,8 +1,10 @@
 package voicebot.management.history.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -12,6 +14,14 @@ import java.util.Map;
 
 @Data
 @Document(collection = "consultation")
+@CompoundIndex(name = "uk_v_id_s_index", def = "{'v_id': 1, 's_index': 1}", unique = true)
+@CompoundIndex(name = "idx_time_id", def = "{'time': -1, '_id': -1}")
+@CompoundIndex(name = "idx_s_index_time_id", def = "{'s_index': 1, 'time': -1, '_id': -1}")
+@CompoundIndex(name = "idx_v_id_time", def = "{'v_id': 1, 'time': -1}")
+@CompoundIndex(name = "idx_account_id_time", def = "{'account_id': 1, 'time': -1}")
+@CompoundIndex(name = "idx_q_id", def = "{'q_id': 1}")
+@CompoundIndex(name = "idx_v_grams", def = "{'v_grams': 1}")
+@CompoundIndex(name = "idx_q_grams", def = "{'q_grams': 1}")
 public class Consultation {
 
     @Id
@@ -34,6 +44,32 @@ public class Consultation {
     @JsonProperty("q_id")
     private String questionSetId;
 
+    // ====== 이력 화면용 읽기 모델 (저장 시 기록, 이름/제목 변경 시 동기화) ======
+    @Field("v_name")
+    @JsonProperty("v_name")
+    private String vulnerableName;
+
+    @Field("q_title")
+    @JsonProperty("q_title")
+    private String questionSetTitle;
+
+    // v_name / q_title 검색용 n-gram (SearchGrams)
+    @JsonIgnore
+    @Field("v_grams")
+    private List<String> vulnerableNameGrams;
+
+    @JsonIgnore
+    @Field("q_grams")
+    private List<String> questionSetTitleGrams;
+
+    @Field("risk_count")
+    @JsonProperty("risk_count")
+    private Integer riskCount;
+
+    @Field("desire_count")
+    @JsonProperty("desire_count")
+    private Integer desireCount;
+
     @Field("time")
     @JsonProperty("time")
     private LocalDateTime time;
@@ -73,6 +109,11 @@ public class Consultation {
     @JsonProperty("new_vulnerabilities")
     private VulnerabilityInfo newVulnerabilities;
 
+    // 위 변경분이 vulnerable 문서에 반영되었는지 (ConsultationResultWriter 재시도용, 없는 문서는 반영된 것으로 봄)
+    @JsonIgnore
+    @Field("vulnerable_applied")
+    private Boolean vulnerableApplied;
+
 
     @Data
     public static class VulnerabilityInfo {
@@ -0,0 +1,56 @@
+package voicebot.management.history.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import voicebot.management.call.service.DisplayNameCache;
+import voicebot.management.common.SearchGrams;
+import voicebot.management.history.entity.Consultation;
+
+/**
+ * consultation 문서에 저장되는 이력 화면용 필드(v_name, q_title, 검색 n-gram, risk_count, desire_count) 관리.
+ * 취약계층 이름이나 질문 세트 제목이 바뀌면 해당 상담 문서들에 반영하고,
+ * 새 결과가 이전 이름으로 저장되지 않도록 DisplayNameCache 항목도 지웁니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsultationReadModel {
+
+    private final MongoTemplate mongoTemplate;
+    private final DisplayNameCache displayNameCache;
+
+    public void onVulnerableRenamed(String vulnerableId, String name) {
+        displayNameCache.evictVulnerable(vulnerableId);
+        long modified = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("v_id").is(vulnerableId).and("v_name").ne(name)),
+                Update.update("v_name", name).set("v_grams", SearchGrams.of(name)),
+                Consultation.class).getModifiedCount();
+        if (modified > 0) {
+            log.info("[HISTORY][READ_MODEL] v_name 갱신: {} ({}건)", vulnerableId, modified);
+        }
+    }
+
+    public void onQuestionSetRenamed(String questionSetId, String title) {
+        displayNameCache.evictQuestionSet(questionSetId);
+        long modified = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("q_id").is(questionSetId).and("q_title").ne(title)),
+                Update.update("q_title", title).set("q_grams", SearchGrams.of(title)),
+                Consultation.class).getModifiedCount();
+        if (modified > 0) {
+            log.info("[HISTORY][READ_MODEL] q_title 갱신: {} ({}건)", questionSetId, modified);
+        }
+    }
+
+    public static int riskCount(Consultation.VulnerabilityInfo info) {
+        return info != null && info.getRiskList() != null ? info.getRiskList().size() : 0;
+    }
+
+    public static int desireCount(Consultation.VulnerabilityInfo info) {
+        return info != null && info.getDesireList() != null ? info.getDesireList().size() : 0;
+    }
+}
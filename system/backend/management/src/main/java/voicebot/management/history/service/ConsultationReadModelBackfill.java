@@ -0,0 +1,97 @@
+package voicebot.management.history.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import voicebot.management.common.SearchGrams;
+import voicebot.management.history.entity.Consultation;
+import voicebot.management.question.repository.QuestionSetRepository;
+import voicebot.management.vulnerable.repository.VulnerableRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 읽기 모델 필드가 없는 기존 consultation 문서를 채우는 백필 작업.
+ * 기동 후 백그라운드에서 batch-size 건씩 처리하며, 여러 서버가 동시에 돌아도 결과는 같습니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsultationReadModelBackfill {
+
+    private final MongoTemplate mongoTemplate;
+    private final VulnerableRepository vulnerableRepository;
+    private final QuestionSetRepository questionSetRepository;
+
+    @Value("${history.read-model.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${history.read-model.backfill-batch-size:500}")
+    private int batchSize;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    public long backfill() {
+        long total = 0;
+        while (true) {
+            // 검색 n-gram 은 가장 최근에 추가된 필드라 이것이 없는 문서를 대상으로 함
+            Query query = Query.query(Criteria.where("v_grams").exists(false)).limit(batchSize);
+            query.fields().include("v_id", "q_id", "result_vulnerabilities.risk_list", "result_vulnerabilities.desire_list");
+            List<Consultation> batch = mongoTemplate.find(query, Consultation.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<String, String> names = new HashMap<>();
+            vulnerableRepository.findNamesByUserIdIn(
+                            batch.stream().map(Consultation::getVulnerableId).filter(Objects::nonNull).distinct().toList())
+                    .forEach(v -> names.put(v.getUserId(), v.getName()));
+            Map<String, String> titles = new HashMap<>();
+            questionSetRepository.findTitlesByIdIn(
+                            batch.stream().map(Consultation::getQuestionSetId).filter(Objects::nonNull).distinct().toList())
+                    .forEach(q -> titles.put(q.getId(), q.getTitle()));
+
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Consultation.class);
+            for (Consultation c : batch) {
+                String name = names.get(c.getVulnerableId());
+                String title = titles.get(c.getQuestionSetId());
+                ops.updateOne(Query.query(Criteria.where("_id").is(c.getId())), new Update()
+                        .set("v_name", name)
+                        .set("q_title", title)
+                        .set("v_grams", SearchGrams.of(name))
+                        .set("q_grams", SearchGrams.of(title))
+                        .set("risk_count", ConsultationReadModel.riskCount(c.getResultVulnerabilities()))
+                        .set("desire_count", ConsultationReadModel.desireCount(c.getResultVulnerabilities())));
+            }
+            ops.execute();
+            total += batch.size();
+            log.info("[HISTORY][BACKFILL] {}건 처리 (누적 {}건)", batch.size(), total);
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("[HISTORY][BACKFILL] 읽기 모델 백필 완료: {}건", total);
+        }
+        return total;
+    }
+}
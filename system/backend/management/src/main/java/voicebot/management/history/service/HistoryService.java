@@ -2,6 +2,7 @@ package voicebot.management.history.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import voicebot.management.history.dto.CallHistoryCursorPageDto;
 import voicebot.management.history.dto.CallHistoryDto;
 import voicebot.management.history.entity.Consultation;
 
@@ -11,5 +12,11 @@ public interface HistoryService {
 
     Page<CallHistoryDto> getCallHistory(String searchTerm, Integer sIndex, Pageable pageable);
 
+    /**
+     * (time, _id) 최신순 keyset 페이지네이션. 페이지 깊이와 관계없이 비용이 일정합니다.
+     * @param cursor 이전 응답의 nextCursor, 첫 페이지면 null
+     */
+    CallHistoryCursorPageDto getCallHistoryByCursor(String searchTerm, Integer sIndex, String cursor, int size);
+
     Optional<Consultation> getCallHistoryDetail(String callId);
 }
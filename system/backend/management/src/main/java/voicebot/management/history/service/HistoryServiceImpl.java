@@ -6,19 +6,25 @@ import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.*;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import voicebot.management.common.SearchGrams;
+import voicebot.management.history.dto.CallHistoryCursorPageDto;
 import voicebot.management.history.dto.CallHistoryDto;
 import voicebot.management.history.entity.Consultation;
 import voicebot.management.history.repository.ConsultationRepository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -27,42 +33,41 @@ public class HistoryServiceImpl implements HistoryService {
     private final ConsultationRepository consultationRepository;
     private final MongoTemplate mongoTemplate;
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @Override
     public Page<CallHistoryDto> getCallHistory(String searchTerm, Integer sIndex, Pageable pageable) {
 
-        List<AggregationOperation> aggregationOperations = new ArrayList<>();
+        Aggregation aggregation = callHistoryAggregation(searchTerm, sIndex, pageable);
 
-        aggregationOperations.add(
-                Aggregation.lookup("vulnerable", "v_id", "_id", "vulnerableInfo")
-        );
-        aggregationOperations.add(
-                Aggregation.lookup("question_sets", "q_id", "_id", "questionSetInfo")
-        );
+        FacetResult facet = mongoTemplate.aggregate(aggregation, "consultation", FacetResult.class)
+                .getUniqueMappedResult();
+        List<ConsultationProjection> results = facet != null && facet.getItems() != null
+                ? facet.getItems()
+                : Collections.emptyList();
+        long total = facet != null && facet.getMeta() != null && !facet.getMeta().isEmpty()
+                ? facet.getMeta().get(0).getTotal()
+                : 0L;
 
-        aggregationOperations.add(Aggregation.unwind("vulnerableInfo", true));
-        aggregationOperations.add(Aggregation.unwind("questionSetInfo", true));
+        List<CallHistoryDto> dtos = results.stream()
+                .map(this::mapToDto)
+                .toList();
 
-        List<Criteria> conditions = new ArrayList<>();
+        return new PageImpl<>(dtos, pageable, total);
+    }
 
-        if (sIndex != null) {
-            conditions.add(Criteria.where("s_index").is(sIndex));
-        }
+    /**
+     * 목록 페이지 + 전체 건수 aggregation.
+     * MongoIndexCoverageReporter 가 같은 파이프라인을 explain 하므로 조회 모양을 바꾸면 함께 반영됩니다.
+     */
+    public Aggregation callHistoryAggregation(String searchTerm, Integer sIndex, Pageable pageable) {
+        // v_name / q_title / risk_count / desire_count 는 저장 시 consultation 에 기록되므로 $lookup 없이 조회
+        List<AggregationOperation> aggregationOperations = new ArrayList<>();
 
-        if (StringUtils.hasText(searchTerm)) {
-            Criteria searchCriteria = new Criteria().orOperator(
-                    Criteria.where("vulnerableInfo.name").regex(searchTerm, "i"),
-                    Criteria.where("questionSetInfo.title").regex(searchTerm, "i")
-            );
-            if (ObjectId.isValid(searchTerm)) {
-                searchCriteria.orOperator(
-                        Criteria.where("_id").is(new ObjectId(searchTerm))
-                );
-            }
-            conditions.add(searchCriteria);
-        }
+        List<Criteria> conditions = buildConditions(searchTerm, sIndex);
 
         if (!conditions.isEmpty()) {
             Criteria finalCriteria = new Criteria().andOperator(
@@ -71,57 +76,64 @@ public class HistoryServiceImpl implements HistoryService {
             aggregationOperations.add(Aggregation.match(finalCriteria));
         }
 
-        // ====== total count ======
-        List<AggregationOperation> countOps = new ArrayList<>(aggregationOperations);
-        countOps.add(Aggregation.group().count().as("total"));
-
-        Aggregation countAggregation = Aggregation.newAggregation(countOps);
-        Long total = Optional.ofNullable(
-                        mongoTemplate.aggregate(countAggregation, "consultation", CountResult.class)
-                                .getUniqueMappedResult()
-                )
-                .map(CountResult::getTotal)
-                .orElse(0L);
-
-        // ====== 정렬 / 페이징 ======
+        // $facet 안의 단계는 인덱스를 쓰지 못하므로 $match / $sort 는 $facet 앞에서 인덱스로 처리
         if (pageable.getSort().isSorted()) {
             aggregationOperations.add(Aggregation.sort(pageable.getSort()));
         }
-        aggregationOperations.add(Aggregation.skip(pageable.getOffset()));
-        aggregationOperations.add(Aggregation.limit(pageable.getPageSize()));
 
-        // ====== 프로젝션 (위기/욕구 리스트는 여기서 안 가져옴) ======
+        // ====== 페이지 + 전체 건수를 $facet 한 번으로 ======
         aggregationOperations.add(
-                Aggregation.project()
-                        .and("_id").as("id")
-                        .and("s_index").as("s_index")
-                        .and("vulnerableInfo.name").as("v_name")
-                        .and("questionSetInfo.title").as("q_title")
-                        .and("time").as("start_time")
-                        .and("result").as("result_code")
+                Aggregation.facet(
+                                Aggregation.skip(pageable.getOffset()),
+                                Aggregation.limit(pageable.getPageSize()),
+                                historyProjection()).as("items")
+                        .and(Aggregation.count().as("total")).as("meta")
         );
 
-        Aggregation aggregation = Aggregation.newAggregation(aggregationOperations);
+        return Aggregation.newAggregation(aggregationOperations);
+    }
 
-        List<ConsultationProjection> results =
-                mongoTemplate.aggregate(aggregation, "consultation", ConsultationProjection.class)
-                        .getMappedResults();
+    @Override
+    public CallHistoryCursorPageDto getCallHistoryByCursor(String searchTerm, Integer sIndex, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
 
-        // ====== 여기서 실제 Consultation 엔티티를 다시 읽어서 risk/desire 개수 계산 ======
-        List<String> ids = results.stream()
-                .map(ConsultationProjection::getId)
-                .filter(Objects::nonNull)
-                .toList();
+        // (time, _id) 내림차순 keyset: 커서 이후 문서만 인덱스에서 바로 읽음
+        List<Criteria> conditions = buildConditions(searchTerm, sIndex);
+        if (StringUtils.hasText(cursor)) {
+            HistoryCursor after = decodeCursor(cursor);
+            conditions.add(new Criteria().orOperator(
+                    Criteria.where("time").lt(after.time()),
+                    Criteria.where("time").is(after.time()).and("_id").lt(after.id())
+            ));
+        }
 
-        Map<String, Consultation> consultationMap =
-                consultationRepository.findAllById(ids).stream()
-                        .collect(Collectors.toMap(Consultation::getId, c -> c));
+        List<AggregationOperation> operations = new ArrayList<>();
+        if (!conditions.isEmpty()) {
+            operations.add(Aggregation.match(new Criteria().andOperator(conditions.toArray(new Criteria[0]))));
+        }
+        operations.add(Aggregation.sort(Sort.by(Sort.Direction.DESC, "time", "_id")));
+        operations.add(Aggregation.limit(pageSize + 1L)); // 한 건 더 읽어 다음 페이지 여부 확인
+        operations.add(historyProjection());
 
-        List<CallHistoryDto> dtos = results.stream()
-                .map(p -> mapToDto(p, consultationMap.get(p.getId())))
-                .toList();
+        List<ConsultationProjection> results = new ArrayList<>(
+                mongoTemplate.aggregate(Aggregation.newAggregation(operations), "consultation", ConsultationProjection.class)
+                        .getMappedResults());
 
-        return new PageImpl<>(dtos, pageable, total);
+        boolean hasNext = results.size() > pageSize;
+        if (hasNext) {
+            results = results.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            ConsultationProjection last = results.get(results.size() - 1);
+            nextCursor = encodeCursor(last.getStart_time(), last.getId());
+        }
+
+        return CallHistoryCursorPageDto.builder()
+                .items(results.stream().map(this::mapToDto).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Override
@@ -129,31 +141,83 @@ public class HistoryServiceImpl implements HistoryService {
         return consultationRepository.findById(callId);
     }
 
-    private CallHistoryDto mapToDto(ConsultationProjection p, Consultation c) {
-        int riskCount = 0;
-        int desireCount = 0;
-
-        if (c != null && c.getResultVulnerabilities() != null) {
-            if (c.getResultVulnerabilities().getRiskList() != null) {
-                riskCount = c.getResultVulnerabilities().getRiskList().size();
-            }
-            if (c.getResultVulnerabilities().getDesireList() != null) {
-                desireCount = c.getResultVulnerabilities().getDesireList().size();
-            }
-        }
-
+    private CallHistoryDto mapToDto(ConsultationProjection p) {
         return CallHistoryDto.builder()
                 .id(p.getId())
                 .v_name(p.getV_name())
                 .q_title(p.getQ_title())
                 .start_time(formatTime(p.getStart_time()))
                 .result(mapResultCodeToString(p.getResult_code()))
-                .riskCount(riskCount)
-                .desireCount(desireCount)
+                .riskCount(p.getRisk_count() != null ? p.getRisk_count() : 0)
+                .desireCount(p.getDesire_count() != null ? p.getDesire_count() : 0)
                 .s_index(p.getS_index())
                 .build();
     }
 
+    private List<Criteria> buildConditions(String searchTerm, Integer sIndex) {
+        List<Criteria> conditions = new ArrayList<>();
+
+        if (sIndex != null) {
+            conditions.add(Criteria.where("s_index").is(sIndex));
+        }
+
+        if (StringUtils.hasText(searchTerm)) {
+            // n-gram 인덱스($all)로 후보를 좁힌 뒤 같은 조건 안에서 부분 문자열 일치를 확인
+            List<String> grams = SearchGrams.forQuery(searchTerm);
+            String pattern = Pattern.quote(searchTerm.trim());
+            List<Criteria> searchConditions = new ArrayList<>();
+            searchConditions.add(Criteria.where("v_grams").all(grams).and("v_name").regex(pattern, "i"));
+            searchConditions.add(Criteria.where("q_grams").all(grams).and("q_title").regex(pattern, "i"));
+            if (ObjectId.isValid(searchTerm)) {
+                searchConditions.add(Criteria.where("_id").is(new ObjectId(searchTerm)));
+            }
+            conditions.add(new Criteria().orOperator(searchConditions.toArray(new Criteria[0])));
+        }
+        return conditions;
+    }
+
+    /**
+     * 목록 화면용 프로젝션. 위기/욕구 리스트와 대화 스크립트는 가져오지 않고
+     * 개수는 저장된 값을 쓰되, 백필 전 문서는 $size 로 계산합니다.
+     */
+    private ProjectionOperation historyProjection() {
+        return Aggregation.project()
+                .and("_id").as("id")
+                .and("s_index").as("s_index")
+                .and("v_name").as("v_name")
+                .and("q_title").as("q_title")
+                .and("time").as("start_time")
+                .and("result").as("result_code")
+                .and(countOf("risk_count", "result_vulnerabilities.risk_list")).as("risk_count")
+                .and(countOf("desire_count", "result_vulnerabilities.desire_list")).as("desire_count");
+    }
+
+    /** 커서 = base64url("time|_id") */
+    private String encodeCursor(LocalDateTime time, String id) {
+        String raw = (time != null ? time.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HistoryCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, sep)), new ObjectId(raw.substring(sep + 1)));
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 cursor 입니다.");
+        }
+    }
+
+    private record HistoryCursor(LocalDateTime time, ObjectId id) {
+    }
+
+    /** $ifNull(저장된 개수, $size($ifNull(리스트, []))) */
+    private AggregationExpression countOf(String storedField, String listField) {
+        return ConditionalOperators.ifNull(storedField)
+                .thenValueOf(ArrayOperators.Size.lengthOfArray(
+                        ConditionalOperators.ifNull(listField).then(Collections.emptyList())));
+    }
+
     private String formatTime(LocalDateTime time) {
         return time != null ? time.format(FORMATTER) : null;
     }
@@ -167,6 +231,13 @@ public class HistoryServiceImpl implements HistoryService {
         };
     }
 
+    /** $facet 결과용 */
+    @Data
+    private static class FacetResult {
+        private List<ConsultationProjection> items;
+        private List<CountResult> meta;
+    }
+
     /** count stage 결과용 */
     private static class CountResult {
         private long total;
@@ -183,5 +254,7 @@ public class HistoryServiceImpl implements HistoryService {
         private LocalDateTime start_time;
         private int result_code;
         private int s_index;
+        private Integer risk_count;
+        private Integer desire_count;
     }
 }
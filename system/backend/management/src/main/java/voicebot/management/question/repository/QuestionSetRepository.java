@@ -1,7 +1,14 @@
 package voicebot.management.question.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import voicebot.management.question.entity.QuestionSet;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface QuestionSetRepository extends MongoRepository<QuestionSet, String> {
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'title': 1 }")
+    List<QuestionSet> findTitlesByIdIn(Collection<String> ids);
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package voicebot.management.question.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import voicebot.management.call.service.CallService;
+import voicebot.management.history.service.ConsultationReadModel;
 import voicebot.management.question.dto.*;
 import voicebot.management.question.entity.*;
 import voicebot.management.question.repository.QuestionSetRepository;
@@ -17,6 +19,8 @@ import java.util.Optional;
 public class QuestionService {
 
     private final QuestionSetRepository repository;
+    private final ConsultationReadModel consultationReadModel;
+    private final CallService callService;
 
     public List<QuestionSetDto> findAll() {
         log.info("[QUESTION][SERVICE][FIND_ALL] 전체 조회 요청");
@@ -65,6 +69,9 @@ public class QuestionService {
         }
         dto.setId(questionId);
         QuestionSet updated = repository.save(toEntity(dto));
+        // 대기 중인 상담이 이전 질문 목록으로 발신되지 않도록 캐시를 비움
+        callService.evictQuestionSet(questionId);
+        consultationReadModel.onQuestionSetRenamed(questionId, updated.getTitle());
         log.info("[QUESTION][SERVICE][UPDATE] 수정 완료: {}", questionId);
         return toDto(updated);
     }
@@ -76,6 +83,7 @@ public class QuestionService {
             return false;
         }
         repository.deleteById(questionId);
+        callService.evictQuestionSet(questionId);
         log.info("[QUESTION][SERVICE][DELETE] 삭제 완료: {}", questionId);
         return true;
     }
@@ -2,6 +2,7 @@ package voicebot.management.vulnerable.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -18,6 +19,10 @@ public class Vulnerable {
     private String userId;
 
     private String name;
+
+    // 이름 부분 검색용 n-gram (SearchGrams), multikey 인덱스
+    @Indexed(name = "idx_search_grams")
+    private List<String> searchGrams;
     private String gender;
     private LocalDate birthDate;
     private String phoneNumber;
@@ -1,11 +1,27 @@
 package voicebot.management.vulnerable.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import voicebot.management.vulnerable.entity.Vulnerable;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface VulnerableRepository extends MongoRepository<Vulnerable, String> {
-    List<Vulnerable> findByNameContaining(String name);
+    // n-gram 인덱스로 후보를 고른 뒤 이름 부분 일치 확인 (grams = SearchGrams.forQuery, pattern = 인용된 검색어)
+    @Query("{ 'searchGrams': { $all: ?0 }, 'name': { $regex: ?1 } }")
+    List<Vulnerable> searchByNameGrams(List<String> grams, String pattern);
+
+    // 검색 n-gram 백필 대상
+    @Query(value = "{ 'searchGrams': { $exists: false } }", fields = "{ 'name': 1 }")
+    List<Vulnerable> findWithoutSearchGrams(Pageable pageable);
+
+    // 존재 여부 확인용: _id 만 가져오는 단일 $in 쿼리
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ '_id': 1 }")
+    List<Vulnerable> findIdsByUserIdIn(Collection<String> userIds);
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'name': 1 }")
+    List<Vulnerable> findNamesByUserIdIn(Collection<String> userIds);
 }
 
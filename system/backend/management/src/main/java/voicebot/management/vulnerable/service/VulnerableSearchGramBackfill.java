@@ -0,0 +1,72 @@
+package voicebot.management.vulnerable.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import voicebot.management.common.SearchGrams;
+import voicebot.management.vulnerable.entity.Vulnerable;
+import voicebot.management.vulnerable.repository.VulnerableRepository;
+
+import java.util.List;
+
+/**
+ * searchGrams 가 없는 기존 vulnerable 문서에 이름 n-gram 을 채우는 백필 작업.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VulnerableSearchGramBackfill {
+
+    private final MongoTemplate mongoTemplate;
+    private final VulnerableRepository vulnerableRepository;
+
+    @Value("${history.read-model.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${history.read-model.backfill-batch-size:500}")
+    private int batchSize;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    public long backfill() {
+        long total = 0;
+        while (true) {
+            List<Vulnerable> batch = vulnerableRepository.findWithoutSearchGrams(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Vulnerable.class);
+            for (Vulnerable v : batch) {
+                ops.updateOne(Query.query(Criteria.where("_id").is(v.getUserId())),
+                        Update.update("searchGrams", SearchGrams.of(v.getName())));
+            }
+            ops.execute();
+            total += batch.size();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("[VULNERABLE][BACKFILL] 검색 n-gram 백필 완료: {}건", total);
+        }
+        return total;
+    }
+}
@@ -2,7 +2,14 @@ package voicebot.management.vulnerable.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import voicebot.management.common.SearchGrams;
+import voicebot.management.history.service.ConsultationReadModel;
 import voicebot.management.vulnerable.dto.VulnerableDto;
 import voicebot.management.vulnerable.entity.Vulnerable;
 import voicebot.management.vulnerable.repository.VulnerableRepository;
@@ -17,6 +24,8 @@ import java.util.Optional;
 public class VulnerableService {
 
     private final VulnerableRepository vulnerableRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ConsultationReadModel consultationReadModel;
 
     public List<VulnerableDto> findAll() {
         log.info("[VULNERABLE][SERVICE][FIND_ALL] 전체 조회 요청");
@@ -65,7 +74,27 @@ public class VulnerableService {
             return null;
         }
         dto.setUserId(userId);
-        Vulnerable updated = vulnerableRepository.save(toEntity(dto));
+        // 인적 사항과 요약만 $set. 위험/욕구 목록은 상담 결과 반영(ConsultationResultWriter 의 $pull/$push)만 변경하므로
+        // 요청에 담겨 와도 무시함 (통째로 덮어쓰면 동시에 반영된 상담 결과가 사라짐)
+        Vulnerable entity = toEntity(dto);
+        Update update = new Update()
+                .set("name", entity.getName())
+                .set("searchGrams", entity.getSearchGrams())
+                .set("gender", entity.getGender())
+                .set("birthDate", entity.getBirthDate())
+                .set("phoneNumber", entity.getPhoneNumber())
+                .set("address", entity.getAddress());
+        if (dto.getVulnerabilities() != null && dto.getVulnerabilities().getSummary() != null) {
+            update.set("vulnerabilities.summary", dto.getVulnerabilities().getSummary());
+        }
+        Vulnerable updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId)), update,
+                FindAndModifyOptions.options().returnNew(true), Vulnerable.class);
+        if (updated == null) {
+            log.warn("[VULNERABLE][SERVICE][UPDATE] 존재하지 않는 userId: {}", userId);
+            return null;
+        }
+        consultationReadModel.onVulnerableRenamed(userId, updated.getName());
         log.info("[VULNERABLE][SERVICE][UPDATE] 수정 완료: {}", userId);
         return toDto(updated);
     }
@@ -87,6 +116,7 @@ public class VulnerableService {
         return Vulnerable.builder()
                 .userId(dto.getUserId())
                 .name(dto.getName())
+                .searchGrams(SearchGrams.of(dto.getName()))
                 .gender(dto.getGender())
                 .birthDate(dto.getBirthDate())
                 .phoneNumber(dto.getPhoneNumber())
@@ -1,7 +1,19 @@
 package voicebot.management.vulnerable.session.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import voicebot.management.vulnerable.session.entity.VulnerableSession;
 
 public interface VulnerableSessionRepository extends JpaRepository<VulnerableSession, String> {
-} 
\ No newline at end of file
+
+    /** 마지막 회차를 더 큰 값으로만 올림 (없으면 생성) */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO vulnerable_session (vulnerable_id, session_index) VALUES (:vulnerableId, :sessionIndex) " +
+            "ON DUPLICATE KEY UPDATE session_index = GREATEST(session_index, VALUES(session_index))",
+            nativeQuery = true)
+    int upsertMaxSessionIndex(@Param("vulnerableId") String vulnerableId, @Param("sessionIndex") int sessionIndex);
+}
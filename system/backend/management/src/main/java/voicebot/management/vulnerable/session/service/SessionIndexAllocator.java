@@ -0,0 +1,84 @@
+package voicebot.management.vulnerable.session.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import voicebot.management.vulnerable.session.entity.VulnerableSession;
+import voicebot.management.vulnerable.session.repository.VulnerableSessionRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 취약계층별 상담 회차(session index) 발급기.
+ * <p>
+ * Redis INCR (session:index:{vulnerableId}) 로 원자적으로 발급하고,
+ * 키가 없을 때만 MySQL vulnerable_session 값으로 초기화합니다.
+ * 발급한 최대 회차는 모아 두었다가 주기적으로 vulnerable_session 에 upsert 합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SessionIndexAllocator {
+
+    private static final String INDEX_KEY_PREFIX = "session:index:";
+
+    // 키가 있으면 INCR, 없으면 seed(ARGV[1]) 로 초기화 후 INCR, seed 도 없으면 nil
+    private static final RedisScript<Long> NEXT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+            "  if ARGV[1] == '' then return false end " +
+            "  redis.call('SET', KEYS[1], ARGV[1], 'NX') " +
+            "end " +
+            "return redis.call('INCR', KEYS[1])",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final VulnerableSessionRepository vulnerableSessionRepository;
+
+    // MySQL 에 아직 반영하지 않은 vulnerableId → 최대 회차
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+
+    /** 다음 회차 하나를 발급합니다. */
+    public int next(String vulnerableId) {
+        String key = INDEX_KEY_PREFIX + vulnerableId;
+        Long index = stringRedisTemplate.execute(NEXT_SCRIPT, List.of(key), "");
+        if (index == null) {
+            int seed = vulnerableSessionRepository.findById(vulnerableId)
+                    .map(VulnerableSession::getSessionIndex)
+                    .orElse(0);
+            index = stringRedisTemplate.execute(NEXT_SCRIPT, List.of(key), String.valueOf(seed));
+            log.info("Seeded session index for {} from MySQL: {}", vulnerableId, seed);
+        }
+
+        int issued = index.intValue();
+        pending.merge(vulnerableId, issued, Math::max);
+        return issued;
+    }
+
+    @Scheduled(fixedDelayString = "${call.session-index.persist-interval-ms:1000}")
+    public void persist() {
+        for (String vulnerableId : pending.keySet()) {
+            Integer index = pending.remove(vulnerableId);
+            if (index == null) {
+                continue;
+            }
+            try {
+                vulnerableSessionRepository.upsertMaxSessionIndex(vulnerableId, index);
+            } catch (Exception e) {
+                log.warn("Failed to persist session index {} for {}: {}", index, vulnerableId, e.getMessage());
+                pending.merge(vulnerableId, index, Math::max);
+            }
+        }
+    }
+
+    @PreDestroy
+    void flush() {
+        persist();
+    }
+}
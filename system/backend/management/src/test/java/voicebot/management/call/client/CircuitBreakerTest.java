@@ -0,0 +1,104 @@
+package voicebot.management.call.client;
+
+import org.junit.jupiter.api.Test;
+import voicebot.management.call.client.CircuitBreaker.Permission;
+import voicebot.management.call.client.CircuitBreaker.State;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long LONG_OPEN_MS = 60_000;
+    private static final long SHORT_OPEN_MS = 200;
+
+    @Test
+    void closedUntilConsecutiveFailuresReachThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, LONG_OPEN_MS);
+
+        breaker.onError();
+        breaker.onError();
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.GRANTED);
+
+        breaker.onError();
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.DENIED);
+        assertThat(breaker.isCallPermitted()).isFalse();
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 2, LONG_OPEN_MS);
+
+        breaker.onError();
+        breaker.onSuccess();
+        breaker.onError();
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void halfOpenAfterOpenDurationAllowsOnlyOneTrial() {
+        // openDuration 0 : OPEN 이 되자마자 다음 확인에서 HALF_OPEN
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 0);
+        breaker.onError();
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.isCallPermitted()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.TRIAL);
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.DENIED);
+        assertThat(breaker.isCallPermitted()).isFalse();
+    }
+
+    @Test
+    void trialSuccessCloses() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 0);
+        breaker.onError();
+        breaker.tryAcquirePermission();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.GRANTED);
+    }
+
+    @Test
+    void trialFailureReopens() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", 5, SHORT_OPEN_MS);
+        for (int i = 0; i < 5; i++) {
+            breaker.onError();
+        }
+        Thread.sleep(SHORT_OPEN_MS + 50);
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.TRIAL);
+
+        breaker.onError();
+
+        // HALF_OPEN 에서는 연속 실패 수와 관계없이 실패 1번으로 다시 OPEN
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.DENIED);
+    }
+
+    @Test
+    void cancelledTrialReleasesPermission() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 0);
+        breaker.onError();
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.TRIAL);
+
+        breaker.onTrialCancelled();
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.TRIAL);
+    }
+
+    @Test
+    void cancelOutsideTrialIsIgnored() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, LONG_OPEN_MS);
+
+        breaker.onTrialCancelled();
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isEqualTo(Permission.GRANTED);
+    }
+}
@@ -0,0 +1,107 @@
+package voicebot.management.call.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET_MS = 100;
+    private static final long FAST_MS = 10;
+    private static final long SLOW_MS = 500;
+
+    @Test
+    void acquiresUpToLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10, TARGET_MS, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(3);
+
+        limiter.onIgnore();
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void additiveIncreaseWhileSaturatedAndFast() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, TARGET_MS, 0.5);
+        acquire(limiter, 4);
+
+        // 한도까지 쓰는 동안 빠른 응답 한 번에 1/limit 씩 증가 : 4 → 4.25 → 4.49 → 4.71 → 4.92 → 5.12
+        for (int i = 0; i < 4; i++) {
+            limiter.onSuccess(FAST_MS);
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.onSuccess(FAST_MS);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.getInFlight()).isEqualTo(3);
+    }
+
+    @Test
+    void noIncreaseWhenUnderused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, TARGET_MS, 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(FAST_MS);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void increaseStopsAtMaxLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 3, TARGET_MS, 0.5);
+        acquire(limiter, 2);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSuccess(FAST_MS);
+            limiter.tryAcquire();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void multiplicativeDecreaseOnSlowResponse() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, TARGET_MS, 0.5);
+        acquire(limiter, 1);
+
+        limiter.onSuccess(SLOW_MS);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void multiplicativeDecreaseOnDropStopsAtMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, TARGET_MS, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void initialLimitIsClampedToBounds() {
+        assertThat(new AdaptiveConcurrencyLimiter(100, 1, 10, TARGET_MS, 0.5).getLimit()).isEqualTo(10);
+        assertThat(new AdaptiveConcurrencyLimiter(0, 0, 10, TARGET_MS, 0.5).getLimit()).isEqualTo(1);
+    }
+
+    private static void acquire(AdaptiveConcurrencyLimiter limiter, int count) {
+        for (int i = 0; i < count; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package voicebot.management.call.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import voicebot.management.call.dto.QueueItem;
+import voicebot.management.call.dto.QueueItemStateDto;
+import voicebot.management.call.service.ConsultationQueue.ClaimResult;
+import voicebot.management.support.RedisContainerTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 대기열 Lua 스크립트 (claim / 반납 / lease 만료 회수 / fencing / ack) 를 실제 Redis 에서 확인합니다.
+ */
+class ConsultationQueueTest extends RedisContainerTest {
+
+    private static final String WORKER = "worker-1";
+    private static final String INFLIGHT_KEY = "{queue}:inflight";
+    private static final String INFLIGHT_QUESTION_SETS_KEY = "{queue}:inflight:qs";
+    private static final String LEASE_KEY = "{queue}:leases";
+    private static final String DEAD_QUEUE_KEY = "{queue}:dead";
+
+    private DispatchWorkerRegistry workerRegistry;
+    private ConsultationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        workerRegistry = mock(DispatchWorkerRegistry.class);
+        when(workerRegistry.getWorkerId()).thenReturn(WORKER);
+        when(workerRegistry.isAlive(anyString())).thenReturn(true);
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        queue = new ConsultationQueue(redis, objectMapper, workerRegistry);
+        ReflectionTestUtils.setField(queue, "dispatchLeaseSeconds", 60L);
+        ReflectionTestUtils.setField(queue, "consultationLeaseMinutes", 30L);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+        ReflectionTestUtils.setField(queue, "stateRetentionHours", 24L);
+        ReflectionTestUtils.setField(queue, "singleQuestionSet", false);
+    }
+
+    @Test
+    void claimTakesHeadAndRecordsLeaseOwnerAndToken() {
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1"), item("q2", "v2", "qs1")));
+
+        QueueItem claimed = claim().item();
+
+        assertThat(claimed.getQueueId()).isEqualTo("q1");
+        assertThat(claimed.getOwner()).isEqualTo(WORKER);
+        assertThat(claimed.getFencingToken()).isEqualTo(1L);
+        assertThat(queue.waitingCount()).isEqualTo(1);
+        assertThat(redis.opsForHash().hasKey(INFLIGHT_KEY, "q1")).isTrue();
+        assertThat(redis.opsForZSet().score(LEASE_KEY, "q1")).isGreaterThan(System.currentTimeMillis());
+        assertThat(queue.getItemState("q1").getState()).isEqualTo(ConsultationQueue.STATE_IN_PROGRESS);
+        assertThat(queue.countByState())
+                .containsEntry(ConsultationQueue.STATE_WAITING, 1L)
+                .containsEntry(ConsultationQueue.STATE_IN_PROGRESS, 1L);
+
+        assertThat(claim().item().getFencingToken()).isEqualTo(2L);
+    }
+
+    @Test
+    void claimOnEmptyQueueIsEmpty() {
+        ClaimResult result = claim();
+
+        assertThat(result.isEmpty()).isTrue();
+        assertThat(result.blocked()).isFalse();
+    }
+
+    @Test
+    void claimSkipsVulnerableAlreadyBeingDialedAndKeepsOrder() {
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1"), item("q2", "v1", "qs1"), item("q3", "v2", "qs1")));
+
+        assertThat(claim().item().getQueueId()).isEqualTo("q1");
+        assertThat(claim().item().getQueueId()).isEqualTo("q3");
+
+        ClaimResult blocked = claim();
+        assertThat(blocked.blocked()).isTrue();
+        assertThat(blocked.isEmpty()).isFalse();
+        assertThat(queue.range(0, -1)).extracting(QueueItem::getQueueId).containsExactly("q2");
+    }
+
+    @Test
+    void claimSkipsPausedQuestionSets() {
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1"), item("q2", "v2", "qs2")));
+
+        assertThat(queue.claim(Set.of("qs1")).item().getQueueId()).isEqualTo("q2");
+        assertThat(queue.claim(Set.of("qs1")).blocked()).isTrue();
+        assertThat(queue.range(0, -1)).extracting(QueueItem::getQueueId).containsExactly("q1");
+    }
+
+    @Test
+    void singleQuestionSetClaimsOnlyTheActiveQuestionSet() {
+        ReflectionTestUtils.setField(queue, "singleQuestionSet", true);
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1"), item("q2", "v2", "qs2"), item("q3", "v3", "qs1")));
+
+        QueueItem first = claim().item();
+        QueueItem second = claim().item();
+        assertThat(first.getQueueId()).isEqualTo("q1");
+        assertThat(second.getQueueId()).isEqualTo("q3");
+        assertThat(claim().blocked()).isTrue();
+        assertThat(redis.opsForHash().get(INFLIGHT_QUESTION_SETS_KEY, "qs1")).isEqualTo("2");
+
+        queue.discard(first, "TEST");
+        assertThat(claim().blocked()).isTrue();
+        queue.discard(second, "TEST");
+
+        // qs1 이 모두 끝나면 다음 질문 세트를 꺼냄
+        assertThat(redis.hasKey(INFLIGHT_QUESTION_SETS_KEY)).isFalse();
+        assertThat(claim().item().getQueueId()).isEqualTo("q2");
+    }
+
+    @Test
+    void expiredLeaseIsReapedToFrontWithAttemptCounted() {
+        ReflectionTestUtils.setField(queue, "dispatchLeaseSeconds", 0L);
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1"), item("q2", "v2", "qs1")));
+        claim();
+
+        queue.reapExpiredLeases();
+
+        List<QueueItem> waiting = queue.range(0, -1);
+        assertThat(waiting).extracting(QueueItem::getQueueId).containsExactly("q1", "q2");
+        assertThat(waiting.get(0).getAttempts()).isEqualTo(1);
+        assertThat(waiting.get(0).getOwner()).isNull();
+        assertThat(waiting.get(0).getFencingToken()).isNull();
+        assertThat(redis.opsForHash().size(INFLIGHT_KEY)).isZero();
+        assertThat(redis.opsForZSet().zCard(LEASE_KEY)).isZero();
+        assertThat(redis.hasKey(INFLIGHT_QUESTION_SETS_KEY)).isFalse();
+
+        QueueItemStateDto state = queue.getItemState("q1");
+        assertThat(state.getState()).isEqualTo(ConsultationQueue.STATE_WAITING);
+        assertThat(state.getAttempts()).isEqualTo(1);
+        assertThat(state.getLastError()).isEqualTo("LEASE_EXPIRED");
+
+        // 발신 잠금도 풀려 같은 대상자를 다시 꺼낼 수 있음
+        assertThat(claim().item().getQueueId()).isEqualTo("q1");
+    }
+
+    @Test
+    void reaperLeavesUnexpiredLeasesAlone() {
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1")));
+        claim();
+
+        queue.reapExpiredLeases();
+
+        assertThat(queue.waitingCount()).isZero();
+        assertThat(redis.opsForHash().hasKey(INFLIGHT_KEY, "q1")).isTrue();
+    }
+
+    @Test
+    void itemExceedingMaxAttemptsMovesToDeadQueue() {
+        ReflectionTestUtils.setField(queue, "dispatchLeaseSeconds", 0L);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 1);
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1")));
+        claim();
+
+        queue.reapExpiredLeases();
+
+        assertThat(queue.waitingCount()).isZero();
+        assertThat(redis.opsForList().size(DEAD_QUEUE_KEY)).isEqualTo(1);
+        assertThat(queue.getItemState("q1").getState()).isEqualTo(ConsultationQueue.STATE_FAILED);
+        assertThat(queue.countByState()).containsEntry(ConsultationQueue.STATE_FAILED, 1L);
+    }
+
+    @Test
+    void staleOwnerIsFencedOffAfterReclaim() {
+        ReflectionTestUtils.setField(queue, "dispatchLeaseSeconds", 0L);
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1")));
+        QueueItem stale = claim().item();
+        queue.reapExpiredLeases();
+        ReflectionTestUtils.setField(queue, "dispatchLeaseSeconds", 60L);
+        QueueItem current = claim().item();
+        assertThat(current.getFencingToken()).isGreaterThan(stale.getFencingToken());
+
+        // 이전 소유자의 세션 연결 / 반납 / 되돌리기는 모두 무시됨
+        assertThat(queue.bindSession(copy(stale), "v1", 1)).isFalse();
+        assertThat(queue.release(copy(stale), "STALE")).isFalse();
+        queue.requeueFront(copy(stale));
+
+        assertThat(queue.waitingCount()).isZero();
+        assertThat(redis.opsForHash().get(INFLIGHT_KEY, "q1").toString())
+                .contains("\"fencingToken\":" + current.getFencingToken());
+        assertThat(queue.bindSession(current, "v1", 1)).isTrue();
+    }
+
+    @Test
+    void ackCompletesBoundItemOnce() {
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1")));
+        QueueItem claimed = claim().item();
+        assertThat(queue.bindSession(claimed, "v1", 3)).isTrue();
+        assertThat(queue.getItemState("q1").getSessionIndex()).isEqualTo(3);
+
+        assertThat(queue.ack("v1", 3)).isTrue();
+
+        assertThat(redis.opsForHash().size(INFLIGHT_KEY)).isZero();
+        assertThat(redis.opsForZSet().zCard(LEASE_KEY)).isZero();
+        assertThat(redis.hasKey(INFLIGHT_QUESTION_SETS_KEY)).isFalse();
+        assertThat(redis.hasKey("{queue}:dial:lock:v1")).isFalse();
+        assertThat(queue.getItemState("q1").getState()).isEqualTo(ConsultationQueue.STATE_COMPLETED);
+        assertThat(queue.ack("v1", 3)).isFalse();
+    }
+
+    @Test
+    void ackForUnknownSessionIsIgnored() {
+        assertThat(queue.ack("v1", 1)).isFalse();
+        assertThat(queue.ack(null, 1)).isFalse();
+        assertThat(queue.ack("v1", null)).isFalse();
+    }
+
+    @Test
+    void requeueFrontDoesNotCountAnAttempt() {
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1"), item("q2", "v2", "qs1")));
+        QueueItem claimed = claim().item();
+
+        queue.requeueFront(claimed);
+
+        List<QueueItem> waiting = queue.range(0, -1);
+        assertThat(waiting).extracting(QueueItem::getQueueId).containsExactly("q1", "q2");
+        assertThat(waiting.get(0).getAttempts()).isZero();
+        assertThat(queue.getItemState("q1").getState()).isEqualTo(ConsultationQueue.STATE_WAITING);
+        assertThat(redis.hasKey("{queue}:dial:lock:v1")).isFalse();
+    }
+
+    @Test
+    void claimsOfDeadWorkerAreReclaimedUntilSessionIsBound() {
+        queue.enqueueAll(List.of(item("q1", "v1", "qs1"), item("q2", "v2", "qs1")));
+        QueueItem unbound = claim().item();
+        QueueItem bound = claim().item();
+        queue.bindSession(bound, "v2", 1);
+        when(workerRegistry.isAlive(WORKER)).thenReturn(false);
+
+        queue.reapOrphanedClaims();
+
+        assertThat(queue.range(0, -1)).extracting(QueueItem::getQueueId).containsExactly(unbound.getQueueId());
+        assertThat(queue.getItemState("q1").getLastError()).isEqualTo("WORKER_LOST");
+        assertThat(redis.opsForHash().hasKey(INFLIGHT_KEY, "q2")).isTrue();
+    }
+
+    private ClaimResult claim() {
+        return queue.claim(Set.of());
+    }
+
+    private static QueueItem item(String queueId, String vulnerableId, String questionSetId) {
+        return QueueItem.builder()
+                .queueId(queueId)
+                .vulnerableId(vulnerableId)
+                .questionSetId(questionSetId)
+                .state(ConsultationQueue.STATE_WAITING)
+                .createdTime(LocalDateTime.now())
+                .build();
+    }
+
+    // release/requeueFront 가 인자를 고치므로 이전 소유자 시점의 사본으로 호출
+    private static QueueItem copy(QueueItem item) {
+        return QueueItem.builder()
+                .queueId(item.getQueueId())
+                .vulnerableId(item.getVulnerableId())
+                .questionSetId(item.getQuestionSetId())
+                .state(item.getState())
+                .createdTime(item.getCreatedTime())
+                .startTime(item.getStartTime())
+                .attempts(item.getAttempts())
+                .owner(item.getOwner())
+                .fencingToken(item.getFencingToken())
+                .sessionIndex(item.getSessionIndex())
+                .build();
+    }
+}
@@ -0,0 +1,200 @@
+package voicebot.management.call.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import voicebot.management.call.dto.LlmResultDto;
+import voicebot.management.call.service.ConsultationResultBuffer.OfferResult;
+import voicebot.management.support.RedisContainerTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 결과 버퍼의 중복 제거, 상한, 묶음 저장, 실패 항목 격리를 실제 Redis 에서 확인합니다. (저장은 mock)
+ */
+class ConsultationResultBufferTest extends RedisContainerTest {
+
+    private static final String WORKER = "worker-1";
+    private static final String PENDING_KEY = "{llm}:results:pending";
+    private static final String DEAD_KEY = "{llm}:results:dead";
+    private static final String ATTEMPTS_KEY = "{llm}:results:attempts";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<List<LlmResultDto>> writes = new ArrayList<>();
+    private ConsultationResultWriter resultWriter;
+    private DispatchWorkerRegistry workerRegistry;
+    private ConsultationResultBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        writes.clear();
+        resultWriter = mock(ConsultationResultWriter.class);
+        doAnswer(invocation -> {
+            List<LlmResultDto> batch = invocation.getArgument(0);
+            writes.add(List.copyOf(batch));
+            return null;
+        }).when(resultWriter).writeBatch(anyList());
+
+        workerRegistry = mock(DispatchWorkerRegistry.class);
+        when(workerRegistry.getWorkerId()).thenReturn(WORKER);
+        when(workerRegistry.isAlive(anyString())).thenReturn(true);
+
+        buffer = new ConsultationResultBuffer(redis, objectMapper, resultWriter, workerRegistry, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(buffer, "maxSize", 100L);
+        ReflectionTestUtils.setField(buffer, "batchSize", 10);
+        ReflectionTestUtils.setField(buffer, "dedupTtlHours", 24L);
+        ReflectionTestUtils.setField(buffer, "maxAttempts", 3);
+        buffer.init();
+    }
+
+    @Test
+    void sameSessionResultIsAcceptedOnce() {
+        assertThat(buffer.offer(result("v1", 1))).isEqualTo(OfferResult.ACCEPTED);
+        assertThat(buffer.offer(result("v1", 1))).isEqualTo(OfferResult.DUPLICATE);
+        assertThat(buffer.offer(result("v1", 2))).isEqualTo(OfferResult.ACCEPTED);
+
+        assertThat(redis.opsForList().size(PENDING_KEY)).isEqualTo(2);
+    }
+
+    @Test
+    void resultWithoutSessionIsNeverDeduplicated() {
+        assertThat(buffer.offer(result("v1", null))).isEqualTo(OfferResult.ACCEPTED);
+        assertThat(buffer.offer(result("v1", null))).isEqualTo(OfferResult.ACCEPTED);
+
+        assertThat(redis.opsForList().size(PENDING_KEY)).isEqualTo(2);
+        assertThat(redis.keys("{llm}:result:*")).isEmpty();
+    }
+
+    @Test
+    void fullBufferRejectsWithoutMarkingDuplicate() {
+        ReflectionTestUtils.setField(buffer, "maxSize", 1L);
+        buffer.offer(result("v1", 1));
+
+        assertThat(buffer.offer(result("v2", 1))).isEqualTo(OfferResult.FULL);
+
+        // 거절한 결과는 표시가 남지 않아 비운 뒤 다시 받을 수 있음
+        buffer.flush();
+        assertThat(buffer.offer(result("v2", 1))).isEqualTo(OfferResult.ACCEPTED);
+    }
+
+    @Test
+    void flushWritesInBatchesInArrivalOrder() {
+        for (int i = 1; i <= 25; i++) {
+            buffer.offer(result("v" + i, 1));
+        }
+
+        buffer.flush();
+
+        assertThat(writes).extracting(List::size).containsExactly(10, 10, 5);
+        assertThat(writes.get(0).get(0).getVulnerableId()).isEqualTo("v1");
+        assertThat(writes.get(2).get(4).getVulnerableId()).isEqualTo("v25");
+        assertThat(redis.opsForList().size(PENDING_KEY)).isZero();
+        assertThat(redis.keys("{llm}:results:processing:*")).isEmpty();
+    }
+
+    @Test
+    void failingResultIsIsolatedAndDeadLetteredAfterMaxAttempts() {
+        doAnswer(invocation -> {
+            List<LlmResultDto> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(r -> "poison".equals(r.getVulnerableId()))) {
+                throw new IllegalStateException("write failed");
+            }
+            writes.add(List.copyOf(batch));
+            return null;
+        }).when(resultWriter).writeBatch(anyList());
+        buffer.offer(result("v1", 1));
+        buffer.offer(result("poison", 1));
+        buffer.offer(result("v3", 1));
+
+        buffer.flush();
+
+        // 묶음 실패 후 한 건씩 저장 : 앞뒤 결과는 저장되고 실패한 결과만 맨 앞으로 돌아감
+        assertThat(writes).extracting(batch -> batch.get(0).getVulnerableId()).containsExactly("v1", "v3");
+        assertThat(pendingVulnerableIds()).containsExactly("poison");
+        assertThat(redis.opsForHash().get(ATTEMPTS_KEY, "poison:1")).isEqualTo("1");
+
+        buffer.offer(result("v4", 1));
+        buffer.flush();
+        buffer.flush();
+
+        assertThat(redis.opsForList().size(PENDING_KEY)).isZero();
+        assertThat(redis.opsForList().range(DEAD_KEY, 0, -1)).singleElement().asString().contains("poison");
+        assertThat(redis.opsForHash().hasKey(ATTEMPTS_KEY, "poison:1")).isFalse();
+        assertThat(writes).extracting(batch -> batch.get(0).getVulnerableId()).containsExactly("v1", "v3", "v4");
+    }
+
+    @Test
+    void undecodableEntryGoesStraightToDeadList() {
+        redis.opsForList().rightPush(PENDING_KEY, "{not json");
+        buffer.offer(result("v1", 1));
+
+        buffer.flush();
+
+        assertThat(redis.opsForList().range(DEAD_KEY, 0, -1)).containsExactly("{not json");
+        assertThat(writes).singleElement().extracting(batch -> batch.get(0).getVulnerableId()).isEqualTo("v1");
+    }
+
+    @Test
+    void batchOfDeadWorkerIsRestoredInOrder() {
+        String orphan = "{llm}:results:processing:worker-2";
+        redis.opsForList().rightPushAll(orphan, json(result("v1", 1)), json(result("v2", 1)));
+        buffer.offer(result("v3", 1));
+        when(workerRegistry.isAlive("worker-2")).thenReturn(false);
+
+        buffer.recoverOrphanedBatches();
+
+        assertThat(redis.hasKey(orphan)).isFalse();
+        assertThat(pendingVulnerableIds()).containsExactly("v1", "v2", "v3");
+    }
+
+    @Test
+    void legacyKeysAreMovedUnderTheHashTag() {
+        redis.opsForList().rightPush("llm:results:pending", json(result("v1", 1)));
+        redis.opsForValue().set("llm:result:v1:1", "ACCEPTED");
+
+        buffer.init();
+
+        assertThat(pendingVulnerableIds()).containsExactly("v1");
+        assertThat(buffer.offer(result("v1", 1))).isEqualTo(OfferResult.DUPLICATE);
+        assertThat(redis.keys("llm:*")).isEmpty();
+    }
+
+    private List<String> pendingVulnerableIds() {
+        return redis.opsForList().range(PENDING_KEY, 0, -1).stream()
+                .map(raw -> {
+                    try {
+                        return objectMapper.readValue(raw, LlmResultDto.class).getVulnerableId();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private String json(LlmResultDto dto) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LlmResultDto result(String vulnerableId, Integer sessionIndex) {
+        return LlmResultDto.builder()
+                .vulnerableId(vulnerableId)
+                .sessionIndex(sessionIndex)
+                .questionSetId("qs1")
+                .summary("summary")
+                .build();
+    }
+}
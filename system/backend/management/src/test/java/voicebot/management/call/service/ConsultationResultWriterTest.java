@@ -0,0 +1,152 @@
+package voicebot.management.call.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import voicebot.management.call.dto.ConsultationStatusDto;
+import voicebot.management.call.dto.LlmResultDto;
+import voicebot.management.history.entity.Consultation;
+import voicebot.management.support.MongoContainerTest;
+import voicebot.management.vulnerable.entity.Vulnerable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 결과 묶음 저장 (중복 건너뜀, 반영 재시도, $pull → $push 순서) 을 실제 Mongo 에서 확인합니다.
+ */
+class ConsultationResultWriterTest extends MongoContainerTest {
+
+    private MonitoringService monitoringService;
+    private ConsultationResultWriter writer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate.indexOps(Consultation.class).createIndex(new Index()
+                .on("v_id", Sort.Direction.ASC).on("s_index", Sort.Direction.ASC).unique());
+
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        monitoringService = mock(MonitoringService.class);
+        writer = new ConsultationResultWriter(mongoTemplate, redisTemplate, monitoringService, mock(DisplayNameCache.class));
+
+        mongoTemplate.insert(Vulnerable.builder()
+                .userId("v1")
+                .name("홍길동")
+                .vulnerabilities(Vulnerable.Vulnerability.builder()
+                        .summary("old")
+                        .riskList(new ArrayList<>(List.of(risk("A", 1), risk("B", 1))))
+                        .desireList(new ArrayList<>())
+                        .build())
+                .build());
+    }
+
+    @Test
+    void resultListReplacesVulnerabilitiesWhenNoDiffIsGiven() {
+        LlmResultDto dto = result(1);
+        dto.setResultVulnerabilities(info(riskDetail("C", 3)));
+
+        writer.writeBatch(List.of(dto));
+
+        Vulnerable.Vulnerability v = vulnerabilities();
+        assertThat(v.getSummary()).isEqualTo("summary-1");
+        assertThat(v.getRiskList()).extracting(Vulnerable.Risk::getContent).containsExactly("C");
+        assertThat(consultations()).singleElement().extracting(Consultation::getVulnerableApplied).isEqualTo(true);
+        verify(monitoringService).sendUpdate(any(ConsultationStatusDto.class));
+    }
+
+    @Test
+    void pullRunsBeforePushOnTheSameDocument() {
+        // A 를 지우고 같은 내용의 A 를 새 유형으로 추가 : $push 가 먼저 적용되면 새 A 까지 지워짐
+        LlmResultDto dto = result(1);
+        dto.setDeleteVulnerabilities(info(riskDetail("A", 1)));
+        dto.setNewVulnerabilities(info(riskDetail("A", 2), riskDetail("C", 3)));
+
+        writer.writeBatch(List.of(dto));
+
+        assertThat(vulnerabilities().getRiskList())
+                .extracting(Vulnerable.Risk::getContent, r -> r.getRiskType().get(0))
+                .containsExactly(tuple("B", 1), tuple("A", 2), tuple("C", 3));
+        assertThat(vulnerabilities().getSummary()).isEqualTo("summary-1");
+    }
+
+    @Test
+    void duplicateResultIsSkippedAndNotAppliedTwice() {
+        LlmResultDto dto = result(1);
+        dto.setNewVulnerabilities(info(riskDetail("C", 3)));
+
+        writer.writeBatch(List.of(dto));
+        writer.writeBatch(List.of(dto, result(2)));
+
+        assertThat(consultations()).extracting(Consultation::getSIndex).containsExactlyInAnyOrder(1, 2);
+        assertThat(vulnerabilities().getRiskList()).extracting(Vulnerable.Risk::getContent)
+                .containsExactly("A", "B", "C");
+        // 완료 알림도 새로 저장된 결과만
+        verify(monitoringService, times(2)).sendUpdate(any(ConsultationStatusDto.class));
+    }
+
+    @Test
+    void storedButUnappliedResultIsAppliedOnRetry() {
+        LlmResultDto dto = result(1);
+        dto.setNewVulnerabilities(info(riskDetail("C", 3)));
+        // 상담은 저장됐지만 Vulnerable 반영 전에 실패한 이전 시도
+        Consultation stored = new Consultation();
+        stored.setVulnerableId("v1");
+        stored.setSIndex(1);
+        stored.setVulnerableApplied(false);
+        mongoTemplate.insert(stored);
+
+        writer.writeBatch(List.of(dto));
+        writer.writeBatch(List.of(dto));
+
+        assertThat(vulnerabilities().getRiskList()).extracting(Vulnerable.Risk::getContent)
+                .containsExactly("A", "B", "C");
+        assertThat(consultations()).singleElement().extracting(Consultation::getVulnerableApplied).isEqualTo(true);
+    }
+
+    private Vulnerable.Vulnerability vulnerabilities() {
+        return mongoTemplate.findById("v1", Vulnerable.class).getVulnerabilities();
+    }
+
+    private List<Consultation> consultations() {
+        return mongoTemplate.findAll(Consultation.class);
+    }
+
+    private static LlmResultDto result(int sessionIndex) {
+        return LlmResultDto.builder()
+                .vulnerableId("v1")
+                .sessionIndex(sessionIndex)
+                .questionSetId("qs1")
+                .summary("summary-" + sessionIndex)
+                .build();
+    }
+
+    private static Vulnerable.Risk risk(String content, int type) {
+        return Vulnerable.Risk.builder().content(content).riskType(List.of(type)).build();
+    }
+
+    private static Consultation.RiskDetail riskDetail(String content, int type) {
+        Consultation.RiskDetail detail = new Consultation.RiskDetail();
+        detail.setContent(content);
+        detail.setRiskIndexList(List.of(type));
+        return detail;
+    }
+
+    private static Consultation.VulnerabilityInfo info(Consultation.RiskDetail... risks) {
+        Consultation.VulnerabilityInfo info = new Consultation.VulnerabilityInfo();
+        info.setRiskList(List.of(risks));
+        return info;
+    }
+}
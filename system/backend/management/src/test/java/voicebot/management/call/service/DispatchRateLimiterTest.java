@@ -0,0 +1,97 @@
+package voicebot.management.call.service;
+
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import voicebot.management.config.RateLimitProperties;
+import voicebot.management.support.RedisContainerTest;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DispatchRateLimiterTest extends RedisContainerTest {
+
+    private RateLimitProperties properties;
+    private DispatchRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setGlobalPerMinute(60);
+        properties.setGlobalBurst(3);
+        limiter = new DispatchRateLimiter(redis, properties);
+    }
+
+    @Test
+    void globalBucketAllowsBurstThenReturnsWait() {
+        assertThat(limiter.tryAcquire("qs-a")).isZero();
+        assertThat(limiter.tryAcquire("qs-a")).isZero();
+        assertThat(limiter.tryAcquire("qs-b")).isZero();
+
+        // 분당 60 = 1초에 1개
+        assertThat(limiter.tryAcquire("qs-a")).isBetween(1L, 1_001L);
+    }
+
+    @Test
+    void bucketRefillsOverTime() throws InterruptedException {
+        properties.setGlobalPerMinute(600);
+        properties.setGlobalBurst(1);
+
+        assertThat(limiter.tryAcquire(null)).isZero();
+        assertThat(limiter.tryAcquire(null)).isBetween(1L, 101L);
+
+        Thread.sleep(150);
+
+        assertThat(limiter.tryAcquire(null)).isZero();
+    }
+
+    @Test
+    void questionSetBucketLimitsOnlyThatQuestionSet() {
+        properties.setGlobalPerMinute(0);
+        properties.setQuestionSets(Map.of("qs-a", 6));
+
+        // 분당 6 → 용량 1, 다음 토큰까지 10초
+        assertThat(limiter.tryAcquire("qs-a")).isZero();
+        assertThat(limiter.tryAcquire("qs-a")).isBetween(9_000L, 10_001L);
+        assertThat(limiter.tryAcquire("qs-b")).isZero();
+        assertThat(limiter.tryAcquire("qs-b")).isZero();
+    }
+
+    @Test
+    void rejectedQuestionSetDoesNotSpendGlobalToken() {
+        properties.setGlobalBurst(2);
+        properties.setQuestionSets(Map.of("qs-a", 6));
+
+        assertThat(limiter.tryAcquire("qs-a")).isZero();
+        // qs-a 버킷이 비어 거절되면 전체 버킷도 차감하지 않음
+        assertThat(limiter.tryAcquire("qs-a")).isPositive();
+        assertThat(limiter.tryAcquire("qs-b")).isZero();
+        assertThat(limiter.tryAcquire("qs-b")).isPositive();
+    }
+
+    @Test
+    void disabledLimiterNeverWaitsOrTouchesRedis() {
+        properties.setEnabled(false);
+        properties.setGlobalBurst(1);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("qs-a")).isZero();
+        }
+        assertThat(redis.keys("*")).isEmpty();
+    }
+
+    @Test
+    void bucketsShareOneClusterSlot() {
+        properties.setQuestionSets(Map.of("qs-a", 6));
+
+        limiter.tryAcquire("qs-a");
+
+        Set<String> keys = redis.keys("*");
+        assertThat(keys).hasSize(2);
+        Set<Integer> slots = keys.stream().map(SlotHash::getSlot).collect(Collectors.toSet());
+        assertThat(slots).hasSize(1);
+    }
+}
@@ -0,0 +1,205 @@
+package voicebot.management.call.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import voicebot.management.call.dto.SseFilterDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Last-Event-ID 재연결 시 replay 버퍼에서 다시 보내는지, 범위를 벗어나면 resync 를 보내는지 확인합니다.
+ * Redis 채널 대신 onMessage 로 이벤트를 직접 넣습니다.
+ */
+class MonitoringServiceImplTest {
+
+    private static final String ADMIN = "admin-1";
+    private static final long WAIT_MILLIS = 2000;
+
+    private ValueOperations<String, String> valueOps;
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private MonitoringServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        valueOps = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(valueOps);
+
+        service = new MonitoringServiceImpl(1, redis, new ObjectMapper(),
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(service, "maxPending", 256);
+        ReflectionTestUtils.setField(service, "slowClientMillis", 10_000L);
+        ReflectionTestUtils.setField(service, "replayBufferSize", 3);
+        ReflectionTestUtils.setField(service, "heartbeatIntervalMillis", 15_000L);
+        ReflectionTestUtils.setField(service, "deadAfterMillis", 45_000L);
+        ReflectionTestUtils.setField(service, "maxSubscribers", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void replaysEventsAfterLastEventId() {
+        service.init();
+        publish(1, "v1", "qs1");
+        publish(2, "v2", "qs1");
+        publish(3, "v3", "qs1");
+
+        RecordingEmitter emitter = subscribe("1", null);
+
+        assertThat(emitter.awaitEvents(3)).containsExactly("connect", "statusUpdate#2", "statusUpdate#3");
+    }
+
+    @Test
+    void newConnectionWithoutLastEventIdGetsOnlyLiveEvents() {
+        service.init();
+        publish(1, "v1", "qs1");
+
+        RecordingEmitter emitter = subscribe(null, null);
+        publish(2, "v2", "qs1");
+
+        assertThat(emitter.awaitEvents(2)).containsExactly("connect", "statusUpdate#2");
+    }
+
+    @Test
+    void lastEventIdOlderThanBufferTriggersResync() {
+        service.init();
+        for (int id = 1; id <= 5; id++) {
+            publish(id, "v" + id, "qs1");
+        }
+
+        // 버퍼 크기 3 : 3, 4, 5 만 남아 있음
+        RecordingEmitter stale = subscribe("1", null);
+        RecordingEmitter fresh = subscribe("2", null);
+
+        assertThat(stale.awaitEvents(2)).containsExactly("connect", "resync");
+        assertThat(fresh.awaitEvents(4))
+                .containsExactly("connect", "statusUpdate#3", "statusUpdate#4", "statusUpdate#5");
+    }
+
+    @Test
+    void lastEventIdNeverIssuedTriggersResync() {
+        service.init();
+        publish(1, "v1", "qs1");
+
+        // 서버가 바뀌어 id 가 다시 시작된 경우 등
+        RecordingEmitter emitter = subscribe("99", null);
+
+        assertThat(emitter.awaitEvents(2)).containsExactly("connect", "resync");
+    }
+
+    @Test
+    void eventsPublishedBeforeStartupAreNotReplayable() {
+        when(valueOps.get("sse:event:seq")).thenReturn("10");
+        service.init();
+        publish(11, "v1", "qs1");
+
+        RecordingEmitter old = subscribe("5", null);
+        RecordingEmitter current = subscribe("10", null);
+
+        assertThat(old.awaitEvents(2)).containsExactly("connect", "resync");
+        assertThat(current.awaitEvents(2)).containsExactly("connect", "statusUpdate#11");
+    }
+
+    @Test
+    void replayHonoursSubscriptionFilter() {
+        service.init();
+        publish(1, "v1", "qs1");
+        publish(2, "v2", "qs2");
+        publish(3, "v3", "qs1");
+
+        RecordingEmitter emitter = subscribe("0", SseFilterDto.builder().questionSetIds(Set.of("qs2")).build());
+
+        assertThat(emitter.awaitEvents(2)).containsExactly("connect", "statusUpdate#2");
+    }
+
+    @Test
+    void coalescedEventsAreSentInIdOrder() {
+        service.init();
+        publish(1, "v1", "qs1");
+        publish(2, "v2", "qs1");
+        publish(3, "v1", "qs1");
+
+        RecordingEmitter emitter = subscribe("0", null);
+
+        // v1 의 이전 상태(1)는 최신(3)으로 합쳐지고 맨 뒤로 옮겨짐
+        assertThat(emitter.awaitEvents(3)).containsExactly("connect", "statusUpdate#2", "statusUpdate#3");
+    }
+
+    private RecordingEmitter subscribe(String lastEventId, SseFilterDto filter) {
+        service.subscribe(ADMIN, lastEventId, filter);
+        return emitters.get(emitters.size() - 1);
+    }
+
+    private void publish(long id, String vulnerableId, String questionSetId) {
+        String json = "{\"vulnerableId\":\"" + vulnerableId + "\",\"questionSetId\":\"" + questionSetId
+                + "\",\"status\":\"IN_PROGRESS\"}";
+        service.onMessage(new DefaultMessage("sse:status".getBytes(StandardCharsets.UTF_8),
+                (id + "|" + json).getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    /** 보낸 이벤트를 "이름#id" (id 가 없으면 이름) 로 기록 */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String frame = builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining());
+            String name = null;
+            String id = null;
+            for (String line : frame.split("\n")) {
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("id:")) {
+                    id = line.substring("id:".length());
+                }
+            }
+            if (name != null) {
+                events.add(id != null ? name + "#" + id : name);
+            }
+        }
+
+        // fan-out 스레드가 보내므로 기대한 수만큼 쌓일 때까지 기다린 뒤, 더 오는 것이 없는지 잠시 확인
+        List<String> awaitEvents(int expected) {
+            long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+            try {
+                while (events.size() < expected && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.copyOf(events);
+        }
+    }
+}
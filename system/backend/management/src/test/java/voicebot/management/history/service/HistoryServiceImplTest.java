@@ -0,0 +1,126 @@
+package voicebot.management.history.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.server.ResponseStatusException;
+import voicebot.management.history.dto.CallHistoryCursorPageDto;
+import voicebot.management.history.dto.CallHistoryDto;
+import voicebot.management.history.entity.Consultation;
+import voicebot.management.history.repository.ConsultationRepository;
+import voicebot.management.support.MongoContainerTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * (time, _id) keyset 커서 페이지와 $facet 페이지를 실제 Mongo 에서 확인합니다.
+ */
+class HistoryServiceImplTest extends MongoContainerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private HistoryServiceImpl historyService;
+    private List<Consultation> stored;
+
+    @BeforeEach
+    void setUp() {
+        historyService = new HistoryServiceImpl(mock(ConsultationRepository.class), mongoTemplate);
+
+        // 같은 시각이 겹치는 문서를 섞어 _id 로 순서를 가르는 경우도 확인
+        stored = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            stored.add(consultation("v" + i, i % 2 + 1, BASE.plusMinutes(i / 2)));
+        }
+        mongoTemplate.insertAll(stored);
+    }
+
+    @Test
+    void cursorPagesWalkAllDocumentsInTimeThenIdOrderWithoutGapsOrRepeats() {
+        List<String> expected = stored.stream()
+                .sorted(Comparator.comparing(Consultation::getTime).thenComparing(Consultation::getId).reversed())
+                .map(Consultation::getId)
+                .toList();
+
+        List<String> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CallHistoryCursorPageDto page = historyService.getCallHistoryByCursor(null, null, cursor, 2);
+            page.getItems().forEach(item -> visited.add(item.getId()));
+            assertThat(page.getNextCursor() != null).isEqualTo(page.isHasNext());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(4);
+        assertThat(visited).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void documentsInsertedAfterTheFirstPageDoNotShiftLaterPages() {
+        CallHistoryCursorPageDto first = historyService.getCallHistoryByCursor(null, null, null, 3);
+        mongoTemplate.insert(consultation("late", 1, BASE.plusHours(1)));
+
+        CallHistoryCursorPageDto second = historyService.getCallHistoryByCursor(null, null, first.getNextCursor(), 3);
+
+        // offset 페이지와 달리 새 문서가 앞에 끼어도 두 번째 페이지가 밀리지 않음
+        List<String> ids = new ArrayList<>();
+        first.getItems().forEach(item -> ids.add(item.getId()));
+        second.getItems().forEach(item -> ids.add(item.getId()));
+        assertThat(ids).doesNotHaveDuplicates().hasSize(6);
+        assertThat(second.getItems()).extracting(CallHistoryDto::getV_name).doesNotContain("late");
+    }
+
+    @Test
+    void cursorPagesApplySessionFilter() {
+        CallHistoryCursorPageDto page = historyService.getCallHistoryByCursor(null, 2, null, 10);
+
+        assertThat(page.getItems()).extracting(CallHistoryDto::getS_index).containsOnly(2);
+        assertThat(page.getItems()).hasSize(3);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        assertThat(historyService.getCallHistoryByCursor(null, null, null, 0).getItems()).hasSize(1);
+        assertThat(historyService.getCallHistoryByCursor(null, null, null, 1000).getItems()).hasSize(7);
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() {
+        assertThatThrownBy(() -> historyService.getCallHistoryByCursor(null, null, "not-a-cursor", 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("400");
+    }
+
+    @Test
+    void offsetPageReturnsItemsAndTotalFromOneFacet() {
+        var page = historyService.getCallHistory(null, null,
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "time", "_id")));
+
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.getContent().get(0).getId())
+                .isEqualTo(historyService.getCallHistoryByCursor(null, null, null, 4).getItems().get(3).getId());
+    }
+
+    private static Consultation consultation(String vulnerableName, int sessionIndex, LocalDateTime time) {
+        Consultation consultation = new Consultation();
+        consultation.setVulnerableId(vulnerableName);
+        consultation.setVulnerableName(vulnerableName);
+        consultation.setSIndex(sessionIndex);
+        consultation.setTime(time);
+        consultation.setRiskCount(0);
+        consultation.setDesireCount(0);
+        return consultation;
+    }
+}